@@ -1,19 +1,31 @@
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Advanced Priority Queue (APQ) System.
  * * An adaptable, location-aware heap implementation supporting dynamic toggling 
  * between Min-Heap and Max-Heap states in linear time.
  */
-public class AdvancedPQ<K extends Comparable<K>, V> {
+public class AdvancedPQ<K extends Comparable<K>, V> implements LocationAwarePQ<K, V> {
 
     /**
      * Entry object tracking its own internal array index to enable O(1) lookup.
+     * Fields are package-private so sibling queues can share the handle type.
      */
     public static class Entry<K, V> {
-        private K key;
-        private V value;
-        private int index; 
+        K key;
+        V value;
+        int index; 
 
         public Entry(K key, V value, int index) {
             this.key = key;
@@ -28,23 +40,115 @@ public class AdvancedPQ<K extends Comparable<K>, V> {
         public String toString() { return "(" + key + ", " + value + ")"; }
     }
 
+    /**
+     * Handle issued by recycling queues. The generation is bumped whenever
+     * the object is reused, so plain entries stay at 24 bytes.
+     */
+    public static final class RecyclableEntry<K, V> extends Entry<K, V> {
+        int generation;
+
+        RecyclableEntry(K key, V value, int index) {
+            super(key, value, index);
+        }
+
+        public int getGeneration() { return generation; }
+    }
+
     private Entry<K, V>[] heap;
     private int size;
     private boolean isMinHeap; 
+    private final int arity;
+    private int modCount;
+    private final ValueIndex<V> valueIndex;
+    private boolean recycling;
+    private boolean ownedRemoval;
+    private Entry<K, V>[] pool;
+    private int poolSize;
+    private PQMetrics metrics;
     private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_ARITY = 2;
+    private static final int REMOVED = -1;
+    private static final int POOLED = -2;
 
-    @SuppressWarnings("unchecked")
     public AdvancedPQ() {
-        this.heap = (Entry<K, V>[]) new Entry[DEFAULT_CAPACITY];
-        this.size = 0;
-        this.isMinHeap = true;
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * Configurable d-ary layout.
+     * The children of slot i occupy the contiguous block [d*i + 1, d*i + d],
+     * so one sift-down step scans a single run of the array. Wider nodes
+     * trade more compares per level for a log_d(n) tree height and fewer
+     * cache misses on removeTop-heavy workloads (4 and 8 are typical).
+     */
+    public AdvancedPQ(int arity) {
+        this(DEFAULT_CAPACITY, true, arity, null);
     }
 
     @SuppressWarnings("unchecked")
-    private AdvancedPQ(int capacity, boolean isMinState) {
+    private AdvancedPQ(int capacity, boolean isMinState, int arity, ValueIndex<V> valueIndex) {
+        if (arity < 2) throw new IllegalArgumentException("Arity must be at least 2.");
         this.heap = (Entry<K, V>[]) new Entry[capacity];
         this.size = 0;
         this.isMinHeap = isMinState;
+        this.arity = arity;
+        this.valueIndex = valueIndex;
+    }
+
+    /**
+     * Indexed Mode.
+     * Maintains a value-to-entry hash index next to heap[] so callers holding
+     * only the payload can use containsValue / updateKeyByValue /
+     * removeByValue in O(1) lookup plus O(log n) sift. Values must be unique
+     * and non-null.
+     */
+    public static <K extends Comparable<K>, V> AdvancedPQ<K, V> indexedByValue(int arity) {
+        return new AdvancedPQ<>(DEFAULT_CAPACITY, true, arity, ValueIndex.ofObjects());
+    }
+
+    /**
+     * Indexed Mode for Integer/Long ids; the index stores ids unboxed in a
+     * primitive open-addressing table. Non-integral values (Double,
+     * BigDecimal, ...) are rejected with IllegalArgumentException.
+     */
+    public static <K extends Comparable<K>, V extends Number> AdvancedPQ<K, V> indexedByLongId(int arity) {
+        return new AdvancedPQ<>(DEFAULT_CAPACITY, true, arity, ValueIndex.ofLongIds());
+    }
+
+    /**
+     * Recycling Mode.
+     * Removed entries are pooled and reused by later inserts, and heap[]
+     * halves once utilization drops below 25% (it doubles only when full), so
+     * a warmed-up insert/removeTop loop allocates nothing.
+     *
+     * With owned = true, removeTop / remove return their entry to the pool
+     * themselves; the returned handle stays readable until the next insert.
+     * With owned = false, callers hand entries back through release().
+     * Handles are RecyclableEntry objects. Reuse bumps getGeneration(); pass
+     * the generation observed at insert to remove(e, gen) /
+     * replaceKey(e, gen, k) to reject stale handles.
+     *
+     * Warning: the unchecked remove(e) / replaceKey(e, k) cannot tell a
+     * reused entry from the original. In owned mode a handle is unsafe with
+     * them once any later insert has run: they act on whichever element now
+     * occupies the object. Use the generation-checked overloads instead.
+     */
+    public static <K extends Comparable<K>, V> AdvancedPQ<K, V> recycling(int arity, boolean owned) {
+        AdvancedPQ<K, V> pq = new AdvancedPQ<>(arity);
+        pq.recycling = true;
+        pq.ownedRemoval = owned;
+        return pq;
+    }
+
+    /**
+     * Hands a removed entry back to the pool (recycling mode only).
+     */
+    public void release(Entry<K, V> e) {
+        if (!recycling) throw new UnsupportedOperationException("Queue was not created in recycling mode.");
+        if (!(e instanceof RecyclableEntry)) throw new IllegalArgumentException("Entry was not issued by a recycling queue.");
+        if (e.index == POOLED) throw new IllegalStateException("Entry already released.");
+        if (contains(e)) throw new IllegalArgumentException("Entry is still in the heap.");
+        pool(e);
     }
 
     /**
@@ -53,26 +157,64 @@ public class AdvancedPQ<K extends Comparable<K>, V> {
      * Floyd's Bottom-Up construction.
      */
     public void toggle() {
+        modCount++;
         this.isMinHeap = !this.isMinHeap;
-        if (size > 1) buildHeap();
+        if (size > 1) buildHeap("toggle");
     }
 
     public Entry<K, V> insert(K key, V value) {
+        if (valueIndex != null) checkIndexable(value);
+        long t0 = metrics == null ? 0 : System.nanoTime();
+        modCount++;
         if (size >= heap.length) resize();
-        Entry<K, V> newEntry = new Entry<>(key, value, size);
+        Entry<K, V> newEntry = acquireEntry(key, value, size);
+        if (valueIndex != null) valueIndex.put(value, newEntry);
         heap[size] = newEntry;
         size++;
         upHeap(size - 1);
+        if (metrics != null) metrics.recordLatency(PQMetrics.INSERT, t0);
         return newEntry;
     }
 
+    /**
+     * Bulk Insertion (O(m + n) or O(m log n)).
+     * Pre-sizes the array once and appends without sifting, then restores
+     * order with a single Floyd pass when that is cheaper than m individual
+     * sifts. Returns the handles in input order.
+     */
+    public List<Entry<K, V>> insertAll(List<? extends K> keys, List<? extends V> values) {
+        int m = keys.size();
+        if (values.size() != m) throw new IllegalArgumentException("Keys and values differ in length.");
+        if (valueIndex != null) checkIndexable(values);
+        ensureCapacity(size + m);
+        modCount++;
+
+        boolean heapify = preferHeapify(m, size + m);
+        List<Entry<K, V>> handles = new ArrayList<>(m);
+        for (int j = 0; j < m; j++) {
+            Entry<K, V> newEntry = acquireEntry(keys.get(j), values.get(j), size);
+            if (valueIndex != null) valueIndex.put(newEntry.value, newEntry);
+            heap[size] = newEntry;
+            size++;
+            if (!heapify) upHeap(size - 1);
+            handles.add(newEntry);
+        }
+        if (heapify) buildHeap("insertAll");
+        return handles;
+    }
+
     public Entry<K, V> removeTop() {
         if (isEmpty()) return null;
+        long t0 = metrics == null ? 0 : System.nanoTime();
+        modCount++;
         Entry<K, V> root = heap[0];
+        if (valueIndex != null) valueIndex.remove(root.value);
         swap(0, size - 1); 
         heap[size - 1] = null;
         size--;
         if (size > 0) downHeap(0);
+        if (recycling) retire(root);
+        if (metrics != null) metrics.recordLatency(PQMetrics.REMOVE_TOP, t0);
         return root;
     }
 
@@ -85,10 +227,15 @@ public class AdvancedPQ<K extends Comparable<K>, V> {
         int i = e.index;
         if (i < 0 || i >= size || heap[i] != e) 
             throw new IllegalArgumentException("Entry not present in this heap.");
+        long t0 = metrics == null ? 0 : System.nanoTime();
+        modCount++;
+        if (valueIndex != null) valueIndex.remove(e.value);
 
         if (i == size - 1) { 
             heap[i] = null;
             size--;
+            if (recycling) retire(e);
+            if (metrics != null) metrics.recordLatency(PQMetrics.REMOVE, t0);
             return e;
         }
 
@@ -98,13 +245,29 @@ public class AdvancedPQ<K extends Comparable<K>, V> {
 
         upHeap(i);   
         downHeap(i);
+        if (recycling) retire(e);
+        if (metrics != null) metrics.recordLatency(PQMetrics.REMOVE, t0);
         return e;
     }
 
+    /** Generation-checked removal (recycling mode); rejects a handle whose entry was reused. */
+    public Entry<K, V> remove(Entry<K, V> e, int generation) {
+        checkGeneration(e, generation);
+        return remove(e);
+    }
+
+    /** Generation-checked key update (recycling mode); rejects a handle whose entry was reused. */
+    public K replaceKey(Entry<K, V> e, int generation, K newKey) {
+        checkGeneration(e, generation);
+        return replaceKey(e, newKey);
+    }
+
     public K replaceKey(Entry<K, V> e, K newKey) {
         int i = e.index;
         if (i < 0 || i >= size || heap[i] != e)
             throw new IllegalArgumentException("Entry not present in this heap.");
+        long t0 = metrics == null ? 0 : System.nanoTime();
+        modCount++;
         
         K oldKey = e.key;
         e.key = newKey;
@@ -112,9 +275,34 @@ public class AdvancedPQ<K extends Comparable<K>, V> {
         if (compare(newKey, oldKey) < 0) upHeap(i);
         else downHeap(i);
         
+        if (metrics != null) metrics.recordLatency(PQMetrics.REPLACE_KEY, t0);
         return oldKey;
     }
 
+    /**
+     * Batched Key Update.
+     * Validates every handle first, then either re-sifts each entry or
+     * rewrites all keys and rebuilds once, whichever is cheaper for the
+     * batch size. A handle listed twice ends with its last key.
+     */
+    public void replaceKeys(List<Entry<K, V>> entries, List<? extends K> newKeys) {
+        int m = entries.size();
+        if (newKeys.size() != m) throw new IllegalArgumentException("Entries and keys differ in length.");
+        for (Entry<K, V> e : entries) {
+            int i = e.index;
+            if (i < 0 || i >= size || heap[i] != e)
+                throw new IllegalArgumentException("Entry not present in this heap.");
+        }
+        modCount++;
+
+        if (preferHeapify(m, size)) {
+            for (int j = 0; j < m; j++) entries.get(j).key = newKeys.get(j);
+            buildHeap("replaceKeys");
+        } else {
+            for (int j = 0; j < m; j++) replaceKey(entries.get(j), newKeys.get(j));
+        }
+    }
+
     /**
      * Rank-Based Retrieval (O(n log n)).
      * Finds the n-th best element without mutating or cloning the main heap.
@@ -123,76 +311,335 @@ public class AdvancedPQ<K extends Comparable<K>, V> {
         if (n < 1 || n > size) throw new IllegalArgumentException("Rank out of bounds.");
         if (n == 1) return top();
 
-        AdvancedPQ<K, Integer> auxPQ = new AdvancedPQ<>(n + 1, this.isMinHeap);
-        auxPQ.insert(this.heap[0].key, 0);
-
-        for (int i = 0; i < n - 1; i++) {
-            Entry<K, Integer> best = auxPQ.removeTop();
-            int idx = best.getValue();
+        Frontier frontier = new Frontier(n * (arity - 1) + 1);
+        for (int i = 0; i < n - 1; i++) frontier.advance();
+        return heap[frontier.peek()];
+    }
 
-            int left = 2 * idx + 1;
-            int right = 2 * idx + 2;
+    /**
+     * Top-k Snapshot (O(k log k)).
+     * Returns the k best entries in priority order from one frontier pass.
+     */
+    public List<Entry<K, V>> topK(int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be >= 0.");
+        int count = Math.min(k, size);
+        List<Entry<K, V>> result = new ArrayList<>(count);
+        if (count == 0) return result;
+
+        Frontier frontier = new Frontier(count * (arity - 1) + 1);
+        for (int i = 0; i < count; i++) result.add(heap[frontier.advance()]);
+        return result;
+    }
 
-            if (left < this.size) auxPQ.insert(this.heap[left].key, left);
-            if (right < this.size) auxPQ.insert(this.heap[right].key, right);
-        }
+    /**
+     * Lazy Rank-Order Iterator.
+     * Yields entries best-first; each step costs O(d log r) at rank r and
+     * reuses a single frontier. Fails fast if the heap is modified.
+     */
+    public Iterator<Entry<K, V>> orderedIterator() {
+        return new RankIterator();
+    }
 
-        return this.heap[auxPQ.top().getValue()];
+    public Stream<Entry<K, V>> orderedStream() {
+        return StreamSupport.stream(Spliterators.spliterator(orderedIterator(), size,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
     public void merge(AdvancedPQ<K, V> other) {
         if (other == null || other.isEmpty()) return;
-        while (this.size + other.size > heap.length) resize();
+        if (valueIndex != null) {
+            List<V> incoming = new ArrayList<>(other.size);
+            for (int i = 0; i < other.size; i++) incoming.add(other.heap[i].value);
+            checkIndexable(incoming);
+        }
+        ensureCapacity(this.size + other.size);
+        modCount++;
 
         for (int i = 0; i < other.size; i++) {
             Entry<K, V> e = other.heap[i];
-            heap[this.size] = new Entry<>(e.key, e.value, this.size);
+            heap[this.size] = newEntry(e.key, e.value, this.size);
+            if (valueIndex != null) valueIndex.put(e.value, heap[this.size]);
             this.size++;
         }
-        buildHeap();
+        buildHeap("merge");
+    }
+
+    public boolean containsValue(V value) {
+        return requireIndex().contains(value);
+    }
+
+    /** Live entry carrying value, or null. */
+    public Entry<K, V> entryOf(V value) {
+        return requireIndex().get(value);
+    }
+
+    /**
+     * Indexed Key Update (O(1) lookup + O(log n) sift).
+     * Returns the previous key.
+     */
+    public K updateKeyByValue(V value, K newKey) {
+        Entry<K, V> e = requireIndex().get(value);
+        if (e == null) throw new IllegalArgumentException("Value not present in this heap.");
+        return replaceKey(e, newKey);
+    }
+
+    /**
+     * Indexed Removal (O(1) lookup + O(log n) sift).
+     * Returns the removed entry, or null if no entry carries value.
+     */
+    public Entry<K, V> removeByValue(V value) {
+        Entry<K, V> e = requireIndex().get(value);
+        return e == null ? null : remove(e);
+    }
+
+    public boolean isIndexed() { return valueIndex != null; }
+
+    private ValueIndex<V> requireIndex() {
+        if (valueIndex == null) throw new UnsupportedOperationException("Queue was not created in indexed mode.");
+        return valueIndex;
+    }
+
+    private void checkIndexable(V value) {
+        if (value == null) throw new IllegalArgumentException("Indexed queues do not accept null values.");
+        if (valueIndex.contains(value)) throw new IllegalArgumentException("Value already present: " + value);
+    }
+
+    /** Validates a batch up front so a rejected value leaves the heap unchanged. */
+    private void checkIndexable(List<? extends V> values) {
+        Set<V> seen = new HashSet<>();
+        for (V v : values) {
+            checkIndexable(v);
+            if (!seen.add(v)) throw new IllegalArgumentException("Value already present: " + v);
+        }
+    }
+
+    /**
+     * Frontier of candidate slots for rank-order traversal. It is a small heap
+     * of slot indices ordered by the keys they reference; popping a slot
+     * exposes its d children as new candidates.
+     */
+    private final class Frontier {
+        private int[] slots;
+        private int count;
+
+        Frontier(int capacity) {
+            this.slots = new int[Math.max(1, capacity)];
+            push(0);
+        }
+
+        boolean isEmpty() { return count == 0; }
+
+        int peek() { return slots[0]; }
+
+        /** Pops the best candidate, enqueues its children and returns it. */
+        int advance() {
+            int best = slots[0];
+            int last = slots[--count];
+            if (count > 0) siftDown(last);
+
+            int first = arity * best + 1;
+            int end = Math.min(first + arity, size);
+            for (int c = first; c < end; c++) push(c);
+            return best;
+        }
+
+        private void push(int slot) {
+            if (count == slots.length) {
+                int[] grown = new int[slots.length * 2];
+                System.arraycopy(slots, 0, grown, 0, count);
+                slots = grown;
+            }
+            int i = count++;
+            while (i > 0) {
+                int p = (i - 1) / 2;
+                if (compare(heap[slot].key, heap[slots[p]].key) >= 0) break;
+                slots[i] = slots[p];
+                i = p;
+            }
+            slots[i] = slot;
+        }
+
+        private void siftDown(int slot) {
+            int i = 0;
+            while (2 * i + 1 < count) {
+                int c = 2 * i + 1;
+                if (c + 1 < count && compare(heap[slots[c + 1]].key, heap[slots[c]].key) < 0) c++;
+                if (compare(heap[slots[c]].key, heap[slot].key) >= 0) break;
+                slots[i] = slots[c];
+                i = c;
+            }
+            slots[i] = slot;
+        }
+    }
+
+    private final class RankIterator implements Iterator<Entry<K, V>> {
+        private final int expectedModCount = modCount;
+        private Frontier frontier;
+
+        public boolean hasNext() {
+            checkForComodification();
+            return frontier == null ? size > 0 : !frontier.isEmpty();
+        }
+
+        public Entry<K, V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (frontier == null) frontier = new Frontier(arity + 1);
+            return heap[frontier.advance()];
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Entry factory. Subclasses override it to attach extra bookkeeping
+     * (e.g. the owning shard) to the handles they hand out.
+     */
+    Entry<K, V> newEntry(K key, V value, int index) {
+        if (recycling) return new RecyclableEntry<>(key, value, index);
+        return new Entry<>(key, value, index);
+    }
+
+    /** Whether e is a live entry of this heap (O(1)). */
+    public boolean contains(Entry<K, V> e) {
+        int i = e.index;
+        return i >= 0 && i < size && heap[i] == e;
+    }
+
+    /** Entry at array slot i (heap order, not rank order). */
+    Entry<K, V> entryAt(int i) { return heap[i]; }
+
+    /**
+     * Replaces the (empty) heap with entries[0..n) in their current slot
+     * order, used by PQSnapshot to restore without sifting. Unless trusted,
+     * the array is checked and re-heapified with Floyd's pass if any child
+     * outranks its parent.
+     */
+    @SuppressWarnings("unchecked")
+    void adopt(Entry<K, V>[] entries, int n, boolean trusted) {
+        if (size != 0) throw new IllegalStateException("Heap must be empty to adopt a snapshot.");
+        if (valueIndex != null) {
+            List<V> values = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) values.add(entries[i].value);
+            checkIndexable(values);
+        }
+        modCount++;
+        if (entries.length < DEFAULT_CAPACITY) {
+            Entry<K, V>[] grown = (Entry<K, V>[]) new Entry[DEFAULT_CAPACITY];
+            System.arraycopy(entries, 0, grown, 0, n);
+            entries = grown;
+        }
+        heap = entries;
+        size = n;
+        for (int i = 0; i < n; i++) {
+            heap[i].index = i;
+            if (valueIndex != null) valueIndex.put(heap[i].value, heap[i]);
+        }
+        if (!trusted && !isHeapOrdered()) buildHeap("adopt");
+    }
+
+    private boolean isHeapOrdered() {
+        for (int i = 1; i < size; i++) {
+            if (compare(heap[i].key, heap[(i - 1) / arity].key) < 0) return false;
+        }
+        return true;
     }
 
     public Entry<K, V> top() { return isEmpty() ? null : heap[0]; }
     public boolean isEmpty() { return size == 0; }
     public int size() { return size; }
     public String state() { return isMinHeap ? "Min-Heap" : "Max-Heap"; }
+    public boolean isMinHeap() { return isMinHeap; }
+    public int arity() { return arity; }
+
+    /**
+     * Instrumentation Mode.
+     * Starts counting compares, swaps, sift depths, operation latencies,
+     * rebuilds and resizes (see PQMetrics). Returns the live metrics object;
+     * calling again keeps the existing counters.
+     */
+    public PQMetrics enableMetrics() {
+        if (metrics == null) metrics = new PQMetrics();
+        return metrics;
+    }
 
-    private void buildHeap() {
-        for (int i = (size - 2) / 2; i >= 0; i--) downHeap(i);
+    public void disableMetrics() { metrics = null; }
+
+    /** Live metrics, or null when instrumentation is disabled. */
+    public PQMetrics metrics() { return metrics; }
+
+    /**
+     * A Floyd rebuild touches O(total) slots; m sifts cost O(m log total).
+     * total is the heap size after the batch: size + m for insertAll, size
+     * for replaceKeys, whose entries are already in the heap.
+     */
+    private boolean preferHeapify(int m, int total) {
+        if (total < 2) return false;
+        int levels = 32 - Integer.numberOfLeadingZeros(total);
+        return (long) m * levels >= total;
+    }
+
+    /** Floyd's bottom-up pass; cause names the operation in the JFR event. */
+    private void buildHeap(String cause) {
+        PQRebuildEvent event = new PQRebuildEvent();
+        event.begin();
+        for (int i = (size - 2) / arity; i >= 0; i--) downHeap(i);
+        if (metrics != null) metrics.rebuilds++;
+        emit(event, cause);
+    }
+
+    private void emit(PQRebuildEvent event, String cause) {
+        if (event.shouldCommit()) {
+            event.operation = cause;
+            event.size = size;
+            event.arity = arity;
+            event.state = state();
+            event.commit();
+        }
     }
 
     private void upHeap(int i) {
+        int depth = 0;
         while (i > 0) {
-            int p = (i - 1) / 2;
+            int p = (i - 1) / arity;
             if (compare(heap[i].key, heap[p].key) < 0) {
                 swap(i, p);
                 i = p;
+                depth++;
             } else break;
         }
+        if (metrics != null) metrics.recordSift(depth);
     }
 
     private void downHeap(int i) {
-        while (2 * i + 1 < size) {
-            int left = 2 * i + 1;
-            int right = 2 * i + 2;
-            int target = left;
+        int depth = 0;
+        while (arity * i + 1 < size) {
+            int first = arity * i + 1;
+            int last = Math.min(first + arity, size);
+            int target = first;
 
-            if (right < size && compare(heap[right].key, heap[left].key) < 0) 
-                target = right;
+            for (int c = first + 1; c < last; c++) {
+                if (compare(heap[c].key, heap[target].key) < 0) target = c;
+            }
 
             if (compare(heap[target].key, heap[i].key) < 0) {
                 swap(i, target);
                 i = target;
+                depth++;
             } else break;
         }
+        if (metrics != null) metrics.recordSift(depth);
     }
 
     private int compare(K k1, K k2) {
+        if (metrics != null) metrics.compares++;
         int res = k1.compareTo(k2);
         return isMinHeap ? res : -res;
     }
 
     private void swap(int i, int j) {
+        if (metrics != null) metrics.swaps++;
         Entry<K, V> temp = heap[i];
         heap[i] = heap[j];
         heap[j] = temp;
@@ -200,11 +647,90 @@ public class AdvancedPQ<K extends Comparable<K>, V> {
         heap[j].index = j;
     }
 
+    private Entry<K, V> acquireEntry(K key, V value, int index) {
+        if (poolSize == 0) return newEntry(key, value, index);
+        Entry<K, V> e = pool[--poolSize];
+        pool[poolSize] = null;
+        e.key = key;
+        e.value = value;
+        e.index = index;
+        ((RecyclableEntry<K, V>) e).generation++;
+        return e;
+    }
+
+    /** Marks a removed entry and, in recycling mode, applies the shrink policy. */
+    private void retire(Entry<K, V> e) {
+        e.index = REMOVED;
+        if (ownedRemoval) pool(e);
+        shrink();
+    }
+
+    /**
+     * Pools at most one entry per heap slot; beyond that the entry is left
+     * to the garbage collector.
+     */
     @SuppressWarnings("unchecked")
+    private void pool(Entry<K, V> e) {
+        if (pool == null) pool = (Entry<K, V>[]) new Entry[DEFAULT_CAPACITY];
+        if (poolSize == pool.length) {
+            if (pool.length >= heap.length) return;
+            Entry<K, V>[] grown = (Entry<K, V>[]) new Entry[Math.min(pool.length * 2, heap.length)];
+            System.arraycopy(pool, 0, grown, 0, poolSize);
+            pool = grown;
+        }
+        if (!ownedRemoval) {
+            e.key = null;
+            e.value = null;
+        }
+        e.index = POOLED;
+        pool[poolSize++] = e;
+    }
+
+    private void checkGeneration(Entry<K, V> e, int generation) {
+        if (!(e instanceof RecyclableEntry)) throw new IllegalArgumentException("Entry was not issued by a recycling queue.");
+        if (((RecyclableEntry<K, V>) e).generation != generation) throw new IllegalArgumentException("Stale entry handle.");
+    }
+
+    /**
+     * Shrink Policy: halves heap[] (and trims the pool) when utilization
+     * drops below 25%, mirroring the doubling growth with hysteresis.
+     */
+    @SuppressWarnings("unchecked")
+    private void shrink() {
+        if (heap.length > DEFAULT_CAPACITY && size < heap.length / 4) {
+            int newCapacity = Math.max(DEFAULT_CAPACITY, heap.length / 2);
+            reallocate(newCapacity, "shrink");
+            if (pool != null && pool.length > newCapacity) {
+                int kept = Math.min(poolSize, newCapacity);
+                Entry<K, V>[] newPool = (Entry<K, V>[]) new Entry[newCapacity];
+                System.arraycopy(pool, poolSize - kept, newPool, 0, kept);
+                pool = newPool;
+                poolSize = kept;
+            }
+        }
+    }
+
+    /** Grows once to the next doubling that fits the requested capacity. */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= heap.length) return;
+        int newCapacity = heap.length;
+        while (newCapacity < capacity) newCapacity *= 2;
+        reallocate(newCapacity, "resize");
+    }
+
     private void resize() {
-        Entry<K, V>[] newHeap = (Entry<K, V>[]) new Entry[heap.length * 2];
+        reallocate(heap.length * 2, "resize");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reallocate(int newCapacity, String cause) {
+        PQRebuildEvent event = new PQRebuildEvent();
+        event.begin();
+        Entry<K, V>[] newHeap = (Entry<K, V>[]) new Entry[newCapacity];
         System.arraycopy(heap, 0, newHeap, 0, size);
         heap = newHeap;
+        if (metrics != null) metrics.resizes++;
+        emit(event, cause);
     }
 
     /**
@@ -0,0 +1,548 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark runner for AdvancedPQ layouts.
+ * Uses System.nanoTime() for timing; each scenario is warmed up before the
+ * best of several measured runs is reported.
+ */
+public class Benchmark {
+
+    private static final int[] N_VALUES = {10_000, 100_000, 1_000_000};
+    private static final int[] ARITIES = {2, 4, 8};
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    private static final int CONTENTION_OPS = 2_000_000;
+    private static final int CONTENTION_PREFILL = 100_000;
+
+    public static void main(String[] args) {
+        benchmarkArity();
+        System.out.println();
+        benchmarkContention();
+        System.out.println();
+        benchmarkMerge();
+        System.out.println();
+        benchmarkBatch();
+        System.out.println();
+        benchmarkAllocation();
+        System.out.println();
+        benchmarkShortestPath();
+        System.out.println();
+        benchmarkExternal();
+        System.out.println();
+        benchmarkSnapshot();
+        System.out.println();
+        benchmarkInstrumentation();
+        System.out.println();
+        benchmarkPrimitive();
+    }
+
+    private static void benchmarkArity() {
+        System.out.println("Benchmarking AdvancedPQ d-ary layouts (removeTop-heavy)");
+        System.out.println("n, arity, insert_ns, drain_ns");
+
+        for (int n : N_VALUES) {
+            int[] keys = randomKeys(n, new Random(352));
+            for (int d : ARITIES) {
+                long[] t = bestOf(() -> fillAndDrain(keys, d));
+                System.out.printf("%d, %d, %d, %d%n", n, d, t[0], t[1]);
+            }
+        }
+    }
+
+    /**
+     * Multi-producer/multi-consumer throughput: every thread alternates
+     * insert and removeTop on a shared, prefilled queue.
+     */
+    private static void benchmarkContention() {
+        int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        System.out.println("Benchmarking concurrent queues (50% insert / 50% removeTop)");
+        System.out.println("threads, global_lock_ops_per_ms, strict_ops_per_ms, relaxed_ops_per_ms");
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            final int t = threads;
+            int shards = 2 * threads;
+            long global = bestThroughput(() -> new GlobalLockPQ<>(), t);
+            long strict = bestThroughput(() -> new ConcurrentAdvancedPQ<>(shards, ConcurrentAdvancedPQ.Ordering.STRICT), t);
+            long relaxed = bestThroughput(() -> new ConcurrentAdvancedPQ<>(shards, ConcurrentAdvancedPQ.Ordering.RELAXED), t);
+            System.out.printf("%d, %d, %d, %d%n", t, global, strict, relaxed);
+        }
+    }
+
+    private static long bestThroughput(Supplier<LocationAwarePQ<Integer, Integer>> factory, int threads) {
+        long best = 0;
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+            long opsPerMs = mixedThroughput(factory.get(), threads);
+            if (run >= WARMUP_RUNS) best = Math.max(best, opsPerMs);
+        }
+        return best;
+    }
+
+    private static long mixedThroughput(LocationAwarePQ<Integer, Integer> pq, int threads) {
+        Random rng = new Random(352);
+        for (int i = 0; i < CONTENTION_PREFILL; i++) pq.insert(rng.nextInt(), i);
+
+        int perThread = CONTENTION_OPS / threads;
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom local = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    if ((i & 1) == 0) pq.insert(local.nextInt(), i);
+                    else pq.removeTop();
+                }
+            });
+        }
+
+        long t0 = System.nanoTime();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        long elapsedNs = System.nanoTime() - t0;
+        return (long) perThread * threads * 1_000_000L / Math.max(1, elapsedNs);
+    }
+
+    /**
+     * Per-partition queues folded into one: AdvancedPQ copies and rebuilds on
+     * every merge, PairingPQ links roots.
+     */
+    private static void benchmarkMerge() {
+        final int partitions = 64;
+        System.out.println("Benchmarking merge of " + partitions + " partition queues");
+        System.out.println("n, advanced_merge_ns, pairing_merge_ns");
+
+        for (int n : N_VALUES) {
+            int[] keys = randomKeys(n, new Random(352));
+            long[] advanced = bestOf(() -> {
+                List<AdvancedPQ<Integer, Integer>> parts = partitioned(keys, partitions, AdvancedPQ::new);
+                long t0 = System.nanoTime();
+                for (int p = 1; p < partitions; p++) parts.get(0).merge(parts.get(p));
+                return new long[] {System.nanoTime() - t0};
+            });
+            long[] pairing = bestOf(() -> {
+                List<PairingPQ<Integer, Integer>> parts = partitioned(keys, partitions, PairingPQ::new);
+                long t0 = System.nanoTime();
+                for (int p = 1; p < partitions; p++) parts.get(0).merge(parts.get(p));
+                return new long[] {System.nanoTime() - t0};
+            });
+            System.out.printf("%d, %d, %d%n", n, advanced[0], pairing[0]);
+        }
+    }
+
+    private static <Q extends LocationAwarePQ<Integer, Integer>> List<Q> partitioned(
+            int[] keys, int partitions, Supplier<Q> factory) {
+        List<Q> parts = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) parts.add(factory.get());
+        for (int i = 0; i < keys.length; i++) parts.get(i % partitions).insert(keys[i], i);
+        return parts;
+    }
+
+    /**
+     * Bulk loading and re-prioritization: per-element insert/replaceKey versus
+     * insertAll/replaceKeys on the same data.
+     */
+    private static void benchmarkBatch() {
+        System.out.println("Benchmarking batch APIs (load n keys, then re-key n/2 entries)");
+        System.out.println("n, insert_loop_ns, insertAll_ns, replaceKey_loop_ns, replaceKeys_ns");
+
+        for (int n : N_VALUES) {
+            int[] raw = randomKeys(n, new Random(352));
+            List<Integer> keys = new ArrayList<>(n);
+            for (int k : raw) keys.add(k);
+            List<Integer> newKeys = new ArrayList<>(keys.subList(0, n / 2));
+            Collections.shuffle(newKeys, new Random(777));
+
+            long[] loop = bestOf(() -> {
+                AdvancedPQ<Integer, Integer> pq = new AdvancedPQ<>();
+                List<AdvancedPQ.Entry<Integer, Integer>> handles = new ArrayList<>(n);
+                long t0 = System.nanoTime();
+                for (int i = 0; i < n; i++) handles.add(pq.insert(keys.get(i), i));
+                long t1 = System.nanoTime();
+                for (int i = 0; i < n / 2; i++) pq.replaceKey(handles.get(i), newKeys.get(i));
+                return new long[] {t1 - t0, System.nanoTime() - t1};
+            });
+            long[] batch = bestOf(() -> {
+                AdvancedPQ<Integer, Integer> pq = new AdvancedPQ<>();
+                long t0 = System.nanoTime();
+                List<AdvancedPQ.Entry<Integer, Integer>> handles = pq.insertAll(keys, keys);
+                long t1 = System.nanoTime();
+                pq.replaceKeys(handles.subList(0, n / 2), newKeys);
+                return new long[] {t1 - t0, System.nanoTime() - t1};
+            });
+            System.out.printf("%d, %d, %d, %d, %d%n", n, loop[0], batch[0], loop[1], batch[1]);
+        }
+    }
+
+    /**
+     * Steady-state hot loop (removeTop + insert at constant size): time and
+     * heap bytes allocated per operation, plain versus recycling mode.
+     */
+    private static void benchmarkAllocation() {
+        final int ops = 2_000_000;
+        System.out.println("Benchmarking steady-state allocation (" + ops + " removeTop+insert pairs)");
+        System.out.println("n, plain_ns, plain_bytes_per_op, recycling_ns, recycling_bytes_per_op");
+
+        for (int n : N_VALUES) {
+            Integer[] keys = new Integer[n];
+            int[] raw = randomKeys(n, new Random(352));
+            for (int i = 0; i < n; i++) keys[i] = raw[i];
+
+            long[] plain = bestOf(() -> steadyState(new AdvancedPQ<>(4), keys, ops));
+            long[] pooled = bestOf(() -> steadyState(AdvancedPQ.recycling(4, true), keys, ops));
+            System.out.printf("%d, %d, %.2f, %d, %.2f%n", n,
+                    plain[0], plain[1] / (double) ops, pooled[0], pooled[1] / (double) ops);
+        }
+    }
+
+    private static long[] steadyState(AdvancedPQ<Integer, Integer> pq, Integer[] keys, int ops) {
+        for (Integer k : keys) pq.insert(k, k);
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            pq.removeTop();
+            pq.insert(keys[i % keys.length], keys[0]);
+        }
+        long elapsed = System.nanoTime() - t0;
+        return new long[] {elapsed, allocatedBytes() - bytes0};
+    }
+
+    /** Bytes allocated by the current thread, or 0 where the JVM cannot tell. */
+    private static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * Dijkstra with decrease-key on a random sparse digraph (out-degree 8,
+     * integer weights 1..1000): binary AdvancedPQ versus monotone RadixPQ.
+     */
+    private static void benchmarkShortestPath() {
+        final int degree = 8;
+        System.out.println("Benchmarking Dijkstra (out-degree " + degree + ", weights 1..1000)");
+        System.out.println("n, advanced_ns, radix_ns");
+
+        for (int n : N_VALUES) {
+            Random rng = new Random(352);
+            int[] targets = new int[n * degree];
+            int[] weights = new int[n * degree];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = rng.nextInt(n);
+                weights[i] = 1 + rng.nextInt(1000);
+            }
+
+            long[] checksum = new long[2];
+            long[] advanced = bestOf(() -> {
+                long t0 = System.nanoTime();
+                checksum[0] = dijkstra(new AdvancedPQ<>(), n, degree, targets, weights);
+                return new long[] {System.nanoTime() - t0};
+            });
+            long[] radix = bestOf(() -> {
+                long t0 = System.nanoTime();
+                checksum[1] = dijkstra(new RadixPQ<>(), n, degree, targets, weights);
+                return new long[] {System.nanoTime() - t0};
+            });
+            if (checksum[0] != checksum[1]) throw new IllegalStateException("Shortest-path results differ.");
+            System.out.printf("%d, %d, %d%n", n, advanced[0], radix[0]);
+        }
+    }
+
+    /**
+     * Fill-then-drain through ExternalPQ: a budget that holds everything
+     * (never touches disk) versus a budget of n/16 (sixteen spilled runs).
+     */
+    private static void benchmarkExternal() {
+        System.out.println("Benchmarking ExternalPQ (fill + drain, long keys and values)");
+        System.out.println("n, in_memory_ns, spilled_ns");
+
+        Path dir;
+        try {
+            dir = Files.createTempDirectory("apq-spill");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            for (int n : N_VALUES) {
+                int[] keys = randomKeys(n, new Random(352));
+                long[] inMemory = bestOf(() -> externalFillAndDrain(keys, n, dir));
+                long[] spilled = bestOf(() -> externalFillAndDrain(keys, n / 16, dir));
+                System.out.printf("%d, %d, %d%n", n, inMemory[0], spilled[0]);
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(dir);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + dir + ": " + e);
+            }
+        }
+    }
+
+    private static long[] externalFillAndDrain(int[] keys, int budget, Path dir) {
+        try (ExternalPQ<Long, Long> pq = new ExternalPQ<>(budget, dir, PQCodec.LONG, PQCodec.LONG)) {
+            long t0 = System.nanoTime();
+            for (int k : keys) pq.insert((long) k, (long) k);
+            while (!pq.isEmpty()) pq.removeTop();
+            return new long[] {System.nanoTime() - t0};
+        }
+    }
+
+    /**
+     * Restart cost: loading a snapshot (adopting the stored array) versus
+     * re-inserting the same entries one by one.
+     */
+    private static void benchmarkSnapshot() {
+        System.out.println("Benchmarking snapshot restore (long keys and values, 4-ary)");
+        System.out.println("n, reinsert_ns, load_ns, file_bytes");
+
+        for (int n : N_VALUES) {
+            int[] keys = randomKeys(n, new Random(352));
+            AdvancedPQ<Long, Long> source = new AdvancedPQ<>(4);
+            for (int k : keys) source.insert((long) k, (long) k);
+
+            Path file;
+            long fileBytes;
+            try {
+                file = Files.createTempFile("apq-snapshot", ".bin");
+                PQSnapshot.write(source, file, PQCodec.LONG, PQCodec.LONG);
+                fileBytes = Files.size(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            long[] reinsert = bestOf(() -> {
+                long t0 = System.nanoTime();
+                AdvancedPQ<Long, Long> pq = new AdvancedPQ<>(4);
+                for (int k : keys) pq.insert((long) k, (long) k);
+                return new long[] {System.nanoTime() - t0};
+            });
+            long[] load = bestOf(() -> {
+                long t0 = System.nanoTime();
+                try {
+                    PQSnapshot.load(file, PQCodec.LONG, PQCodec.LONG);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new long[] {System.nanoTime() - t0};
+            });
+            System.out.printf("%d, %d, %d, %d%n", n, reinsert[0], load[0], fileBytes);
+
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Cost of the instrumentation hooks: fill-and-drain with metrics
+     * disabled (the default) versus enabled.
+     */
+    private static void benchmarkInstrumentation() {
+        System.out.println("Benchmarking instrumentation overhead (4-ary, fill + drain)");
+        System.out.println("n, disabled_ns, enabled_ns, compares, swaps");
+
+        for (int n : N_VALUES) {
+            int[] keys = randomKeys(n, new Random(352));
+            long[] disabled = bestOf(() -> instrumentedFillAndDrain(keys, false));
+            long[] enabled = bestOf(() -> instrumentedFillAndDrain(keys, true));
+            System.out.printf("%d, %d, %d, %d, %d%n", n, disabled[0], enabled[0], enabled[1], enabled[2]);
+        }
+    }
+
+    private static long[] instrumentedFillAndDrain(int[] keys, boolean instrumented) {
+        AdvancedPQ<Integer, Integer> pq = new AdvancedPQ<>(4);
+        PQMetrics metrics = instrumented ? pq.enableMetrics() : null;
+        long t0 = System.nanoTime();
+        for (int k : keys) pq.insert(k, k);
+        while (!pq.isEmpty()) pq.removeTop();
+        long elapsed = System.nanoTime() - t0;
+        return metrics == null
+                ? new long[] {elapsed}
+                : new long[] {elapsed, metrics.compares(), metrics.swaps()};
+    }
+
+    /**
+     * Binary AdvancedPQ<Long, V> versus LongKeyPQ: fill and drain time, and
+     * heap retained per element by a full queue. Retention is read after a
+     * full GC (outgrown arrays are not counted, spare capacity is), on the
+     * last of three builds so class loading and JIT state do not skew it.
+     */
+    private static void benchmarkPrimitive() {
+        System.out.println("Benchmarking LongKeyPQ vs AdvancedPQ<Long, V> (binary, fill then drain)");
+        System.out.println("n, advanced_fill_ns, advanced_drain_ns, advanced_bytes_per_element, "
+                + "longkey_fill_ns, longkey_drain_ns, longkey_bytes_per_element");
+
+        for (int n : N_VALUES) {
+            long[] keys = new long[n];
+            Random rng = new Random(352);
+            for (int i = 0; i < n; i++) keys[i] = rng.nextLong();
+            long[] boxed = bestOf(() -> boxedFillAndDrain(keys));
+            long[] primitive = bestOf(() -> primitiveFillAndDrain(keys));
+            double boxedBytes = retainedPerElement(() -> boxedFill(keys), n);
+            double primitiveBytes = retainedPerElement(() -> primitiveFill(keys), n);
+            System.out.printf("%d, %d, %d, %.1f, %d, %d, %.1f%n", n,
+                    boxed[0], boxed[1], boxedBytes, primitive[0], primitive[1], primitiveBytes);
+        }
+    }
+
+    private static AdvancedPQ<Long, Boolean> boxedFill(long[] keys) {
+        AdvancedPQ<Long, Boolean> pq = new AdvancedPQ<>();
+        for (long k : keys) pq.insert(k, Boolean.TRUE);
+        return pq;
+    }
+
+    private static LongKeyPQ<Boolean> primitiveFill(long[] keys) {
+        LongKeyPQ<Boolean> pq = new LongKeyPQ<>();
+        for (long k : keys) pq.insert(k, Boolean.TRUE);
+        return pq;
+    }
+
+    private static long[] boxedFillAndDrain(long[] keys) {
+        long t0 = System.nanoTime();
+        AdvancedPQ<Long, Boolean> pq = boxedFill(keys);
+        long t1 = System.nanoTime();
+        while (!pq.isEmpty()) pq.removeTop();
+        long t2 = System.nanoTime();
+        return new long[] {t1 - t0, t2 - t1};
+    }
+
+    private static long[] primitiveFillAndDrain(long[] keys) {
+        long t0 = System.nanoTime();
+        LongKeyPQ<Boolean> pq = primitiveFill(keys);
+        long t1 = System.nanoTime();
+        while (!pq.isEmpty()) pq.removeTop();
+        long t2 = System.nanoTime();
+        return new long[] {t1 - t0, t2 - t1};
+    }
+
+    /**
+     * Small queues are built several times over (about 10^6 elements in all)
+     * so the retained delta is well above the collector's accounting noise.
+     */
+    private static double retainedPerElement(Supplier<Object> build, int n) {
+        int copies = Math.max(1, 1_000_000 / n);
+        long retained = 0;
+        for (int round = 0; round < 3; round++) {
+            Object[] built = new Object[copies];
+            long before = usedHeap();
+            for (int i = 0; i < copies; i++) built[i] = build.get();
+            retained = usedHeap() - before;
+            Reference.reachabilityFence(built);
+        }
+        return retained / ((double) n * copies);
+    }
+
+    /** Live heap bytes after a full collection; only meaningful for large deltas. */
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /** Returns the sum of finite distances from node 0. */
+    private static long dijkstra(LocationAwarePQ<Long, Integer> pq, int n, int degree, int[] targets, int[] weights) {
+        long[] dist = new long[n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        @SuppressWarnings("unchecked")
+        AdvancedPQ.Entry<Long, Integer>[] handles = (AdvancedPQ.Entry<Long, Integer>[]) new AdvancedPQ.Entry[n];
+        boolean[] settled = new boolean[n];
+
+        dist[0] = 0;
+        handles[0] = pq.insert(0L, 0);
+        long total = 0;
+        while (!pq.isEmpty()) {
+            AdvancedPQ.Entry<Long, Integer> e = pq.removeTop();
+            int u = e.getValue();
+            settled[u] = true;
+            total += dist[u];
+            for (int j = u * degree; j < (u + 1) * degree; j++) {
+                int v = targets[j];
+                if (settled[v]) continue;
+                long candidate = dist[u] + weights[j];
+                if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    if (handles[v] == null) handles[v] = pq.insert(candidate, v);
+                    else pq.replaceKey(handles[v], candidate);
+                }
+            }
+        }
+        return total;
+    }
+
+    /** Baseline: one AdvancedPQ behind a single monitor. */
+    private static final class GlobalLockPQ<K extends Comparable<K>, V> implements LocationAwarePQ<K, V> {
+        private final AdvancedPQ<K, V> pq = new AdvancedPQ<>();
+
+        public synchronized AdvancedPQ.Entry<K, V> insert(K key, V value) { return pq.insert(key, value); }
+        public synchronized AdvancedPQ.Entry<K, V> removeTop() { return pq.removeTop(); }
+        public synchronized AdvancedPQ.Entry<K, V> remove(AdvancedPQ.Entry<K, V> e) { return pq.remove(e); }
+        public synchronized K replaceKey(AdvancedPQ.Entry<K, V> e, K newKey) { return pq.replaceKey(e, newKey); }
+        public synchronized AdvancedPQ.Entry<K, V> peekAt(int n) { return pq.peekAt(n); }
+        public synchronized AdvancedPQ.Entry<K, V> top() { return pq.top(); }
+        public synchronized void toggle() { pq.toggle(); }
+        public synchronized boolean isEmpty() { return pq.isEmpty(); }
+        public synchronized int size() { return pq.size(); }
+        public synchronized String state() { return pq.state(); }
+    }
+
+    /** Inserts every key, then drains the heap with removeTop. */
+    private static long[] fillAndDrain(int[] keys, int arity) {
+        AdvancedPQ<Integer, Integer> pq = new AdvancedPQ<>(arity);
+        long t0 = System.nanoTime();
+        for (int k : keys) pq.insert(k, k);
+        long t1 = System.nanoTime();
+        while (!pq.isEmpty()) pq.removeTop();
+        long t2 = System.nanoTime();
+        return new long[] {t1 - t0, t2 - t1};
+    }
+
+    interface Scenario {
+        long[] run();
+    }
+
+    static long[] bestOf(Scenario scenario) {
+        return bestOf(scenario, WARMUP_RUNS, MEASURED_RUNS);
+    }
+
+    /** Runs warmups unmeasured, then keeps the per-column minimum of measured runs. */
+    static long[] bestOf(Scenario scenario, int warmups, int measured) {
+        for (int i = 0; i < warmups; i++) scenario.run();
+        long[] best = null;
+        for (int i = 0; i < measured; i++) {
+            long[] t = scenario.run();
+            if (best == null) {
+                best = t;
+            } else {
+                for (int j = 0; j < t.length; j++) best[j] = Math.min(best[j], t[j]);
+            }
+        }
+        return best;
+    }
+
+    static int[] randomKeys(int n, Random rng) {
+        int[] v = new int[n];
+        for (int i = 0; i < n; i++) v[i] = rng.nextInt();
+        return v;
+    }
+}
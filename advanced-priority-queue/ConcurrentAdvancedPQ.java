@@ -0,0 +1,295 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent Multi-Queue built from AdvancedPQ shards.
+ * * Each shard is an independent location-aware heap guarded by its own lock,
+ * so producers and consumers touching different shards never contend.
+ *
+ * Ordering modes:
+ * - STRICT:  removeTop/top lock every shard in a fixed order and serve the
+ *            global best entry (linearizable, but serializes consumers).
+ * - RELAXED: removeTop samples two shards and pops the better of their
+ *            published tops ("power of two choices"); the returned entry is
+ *            near the global best with high probability.
+ *
+ * Entry handles remember their shard, so remove / replaceKey lock exactly one
+ * shard and stay O(log n) under concurrency.
+ */
+public class ConcurrentAdvancedPQ<K extends Comparable<K>, V> implements LocationAwarePQ<K, V> {
+
+    public enum Ordering { STRICT, RELAXED }
+
+    /**
+     * Handle carrying its owning shard; the shard never changes after insert.
+     */
+    private static final class ShardEntry<K extends Comparable<K>, V> extends AdvancedPQ.Entry<K, V> {
+        final Shard<K, V> shard;
+
+        ShardEntry(K key, V value, int index, Shard<K, V> shard) {
+            super(key, value, index);
+            this.shard = shard;
+        }
+    }
+
+    private static final class Shard<K extends Comparable<K>, V> extends AdvancedPQ<K, V> {
+        final ConcurrentAdvancedPQ<K, V> owner;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile AdvancedPQ.Entry<K, V> publishedTop;
+        volatile K publishedKey;
+
+        Shard(ConcurrentAdvancedPQ<K, V> owner, int arity) {
+            super(arity);
+            this.owner = owner;
+        }
+
+        @Override
+        AdvancedPQ.Entry<K, V> newEntry(K key, V value, int index) {
+            return new ShardEntry<>(key, value, index, this);
+        }
+
+        /** Must be called with the lock held after every mutation. */
+        void publish() {
+            AdvancedPQ.Entry<K, V> t = top();
+            publishedTop = t;
+            publishedKey = t == null ? null : t.getKey();
+        }
+    }
+
+    private final Shard<K, V>[] shards;
+    private final Ordering ordering;
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean isMinHeap = true;
+    private static final int INSERT_ATTEMPTS = 4;
+
+    public ConcurrentAdvancedPQ() {
+        this(2 * Runtime.getRuntime().availableProcessors(), Ordering.RELAXED, 2);
+    }
+
+    public ConcurrentAdvancedPQ(int shardCount, Ordering ordering) {
+        this(shardCount, ordering, 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentAdvancedPQ(int shardCount, Ordering ordering, int arity) {
+        if (shardCount < 1) throw new IllegalArgumentException("At least one shard is required.");
+        this.shards = (Shard<K, V>[]) new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new Shard<>(this, arity);
+        this.ordering = ordering;
+    }
+
+    /**
+     * Inserts into a random shard, preferring one whose lock is free.
+     */
+    public AdvancedPQ.Entry<K, V> insert(K key, V value) {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        Shard<K, V> s = shards[rng.nextInt(shards.length)];
+        boolean locked = s.lock.tryLock();
+        for (int attempt = 1; attempt < INSERT_ATTEMPTS && !locked; attempt++) {
+            s = shards[rng.nextInt(shards.length)];
+            locked = s.lock.tryLock();
+        }
+        if (!locked) s.lock.lock();
+        try {
+            AdvancedPQ.Entry<K, V> e = s.insert(key, value);
+            size.incrementAndGet();
+            s.publish();
+            return e;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    public AdvancedPQ.Entry<K, V> removeTop() {
+        return ordering == Ordering.STRICT ? strictRemoveTop() : relaxedRemoveTop();
+    }
+
+    /**
+     * Targeted Removal (O(log n)).
+     * Locks only the shard recorded in the handle.
+     */
+    public AdvancedPQ.Entry<K, V> remove(AdvancedPQ.Entry<K, V> e) {
+        Shard<K, V> s = shardOf(e);
+        s.lock.lock();
+        try {
+            s.remove(e);
+            size.decrementAndGet();
+            s.publish();
+            return e;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    public K replaceKey(AdvancedPQ.Entry<K, V> e, K newKey) {
+        Shard<K, V> s = shardOf(e);
+        s.lock.lock();
+        try {
+            K oldKey = s.replaceKey(e, newKey);
+            s.publish();
+            return oldKey;
+        } finally {
+            s.lock.unlock();
+        }
+    }
+
+    /**
+     * Global best entry. Exact in STRICT mode; in RELAXED mode it is the best
+     * of the published shard tops, which may be momentarily stale.
+     */
+    public AdvancedPQ.Entry<K, V> top() {
+        if (ordering == Ordering.RELAXED) {
+            AdvancedPQ.Entry<K, V> best = null;
+            K bestKey = null;
+            for (Shard<K, V> s : shards) {
+                K k = s.publishedKey;
+                AdvancedPQ.Entry<K, V> t = s.publishedTop;
+                if (k != null && t != null && (bestKey == null || compare(k, bestKey) < 0)) {
+                    best = t;
+                    bestKey = k;
+                }
+            }
+            return best;
+        }
+        lockAll();
+        try {
+            Shard<K, V> s = bestShard();
+            return s == null ? null : s.top();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Rank-Based Retrieval (O(n log n)).
+     * Takes a consistent view of all shards and runs a single frontier search
+     * across them, keyed by (shard, slot).
+     */
+    public AdvancedPQ.Entry<K, V> peekAt(int n) {
+        lockAll();
+        try {
+            if (n < 1 || n > size.get()) throw new IllegalArgumentException("Rank out of bounds.");
+            AdvancedPQ<K, Long> auxPQ = new AdvancedPQ<>();
+            if (!isMinHeap) auxPQ.toggle();
+
+            for (int s = 0; s < shards.length; s++) {
+                if (!shards[s].isEmpty()) auxPQ.insert(shards[s].entryAt(0).getKey(), (long) s << 32);
+            }
+            for (int i = 0; i < n - 1; i++) {
+                long code = auxPQ.removeTop().getValue();
+                Shard<K, V> s = shards[(int) (code >>> 32)];
+                int idx = (int) code;
+                int first = s.arity() * idx + 1;
+                int last = Math.min(first + s.arity(), s.size());
+                for (int c = first; c < last; c++) {
+                    auxPQ.insert(s.entryAt(c).getKey(), (code & 0xFFFFFFFF00000000L) | c);
+                }
+            }
+            long code = auxPQ.top().getValue();
+            return shards[(int) (code >>> 32)].entryAt((int) code);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Dynamic State Toggle (O(n)).
+     * Flips every shard under a global quiescent point.
+     */
+    public void toggle() {
+        lockAll();
+        try {
+            isMinHeap = !isMinHeap;
+            for (Shard<K, V> s : shards) {
+                s.toggle();
+                s.publish();
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public boolean isEmpty() { return size.get() == 0; }
+    public int size() { return size.get(); }
+    public String state() { return isMinHeap ? "Min-Heap" : "Max-Heap"; }
+    public Ordering ordering() { return ordering; }
+    public int shardCount() { return shards.length; }
+
+    private AdvancedPQ.Entry<K, V> strictRemoveTop() {
+        lockAll();
+        try {
+            Shard<K, V> s = bestShard();
+            if (s == null) return null;
+            AdvancedPQ.Entry<K, V> e = s.removeTop();
+            size.decrementAndGet();
+            s.publish();
+            return e;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Power-of-two-choices pop. After a bounded number of misses (empty or
+     * contended shards) it falls back to the strict scan, which also settles
+     * the empty case exactly.
+     */
+    private AdvancedPQ.Entry<K, V> relaxedRemoveTop() {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        int maxAttempts = 2 * shards.length;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            if (size.get() == 0) return null;
+            Shard<K, V> a = shards[rng.nextInt(shards.length)];
+            Shard<K, V> b = shards[rng.nextInt(shards.length)];
+            K ka = a.publishedKey;
+            K kb = b.publishedKey;
+            Shard<K, V> pick;
+            if (ka == null) pick = b;
+            else if (kb == null) pick = a;
+            else pick = compare(kb, ka) < 0 ? b : a;
+
+            if (pick.publishedKey == null || !pick.lock.tryLock()) continue;
+            try {
+                AdvancedPQ.Entry<K, V> e = pick.removeTop();
+                if (e == null) continue;
+                size.decrementAndGet();
+                pick.publish();
+                return e;
+            } finally {
+                pick.lock.unlock();
+            }
+        }
+        return strictRemoveTop();
+    }
+
+    /** Shard with the best top; all locks must be held. */
+    private Shard<K, V> bestShard() {
+        Shard<K, V> best = null;
+        for (Shard<K, V> s : shards) {
+            if (s.isEmpty()) continue;
+            if (best == null || compare(s.top().getKey(), best.top().getKey()) < 0) best = s;
+        }
+        return best;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Shard<K, V> shardOf(AdvancedPQ.Entry<K, V> e) {
+        if (!(e instanceof ShardEntry) || ((ShardEntry<K, V>) e).shard.owner != this)
+            throw new IllegalArgumentException("Entry not present in this heap.");
+        return ((ShardEntry<K, V>) e).shard;
+    }
+
+    private void lockAll() {
+        for (Shard<K, V> s : shards) s.lock.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = shards.length - 1; i >= 0; i--) shards[i].lock.unlock();
+    }
+
+    private int compare(K k1, K k2) {
+        int res = k1.compareTo(k2);
+        return isMinHeap ? res : -res;
+    }
+}
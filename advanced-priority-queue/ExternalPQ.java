@@ -0,0 +1,363 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * External-Memory Priority Queue with a bounded in-memory tier.
+ * A hot AdvancedPQ holds at most memoryBudget entries. When it fills up, its
+ * contents are drained in priority order into a sorted run file. removeTop
+ * serves the better of the hot heap's top and the best run head, like a
+ * sequence heap. Run heads are tracked in a small location-aware heap and
+ * re-keyed in place with replaceKey as each run advances.
+ *
+ * While the working set fits in the budget, no file is ever touched and every
+ * operation goes straight to the hot heap. Runs are read through memory-mapped
+ * windows, so only the pages near each run head are resident. When the run
+ * count exceeds maxRuns, the smallest half of the runs is merged into one, so
+ * file handles and mappings stay bounded while each record is rewritten only
+ * O(log(n / memoryBudget)) times, as in tiered compaction.
+ *
+ * A failed spill or merge leaves the queue unchanged: the hot heap is dropped
+ * only after its run is on disk, merges read through separate cursors, and
+ * partial files are deleted.
+ *
+ * Entries that pass through disk are re-created on the way out, so this queue
+ * returns fresh handles from removeTop and does not support remove /
+ * replaceKey by handle. Call close() to delete the spill files.
+ */
+public class ExternalPQ<K extends Comparable<K>, V> implements AutoCloseable {
+
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int READ_WINDOW_BYTES = 1 << 20;
+    private static final int DEFAULT_MAX_RUNS = 64;
+
+    /** One sorted run on disk, consumed front to back through a mapped window. */
+    private final class Run {
+        final Path file;
+        final FileChannel channel;
+        final long fileSize;
+        long remaining;
+        MappedByteBuffer window;
+        long windowStart;
+        AdvancedPQ.Entry<K, V> head;
+        AdvancedPQ.Entry<K, Run> handle;
+
+        long headOffset;
+
+        Run(Path file, long count) throws IOException {
+            this(file, 0, count);
+        }
+
+        /** A cursor over count records starting at byte offset of file. */
+        Run(Path file, long offset, long count) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.fileSize = channel.size();
+            this.remaining = count;
+            this.windowStart = offset;
+        }
+
+        /** Records not yet returned, including the current head. */
+        long pending() { return head == null ? remaining : remaining + 1; }
+
+        /**
+         * Decodes the next record into head; returns false once exhausted.
+         * On failure the cursor is rewound, so head and the record stay put.
+         */
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                head = null;
+                return false;
+            }
+            long start = position();
+            K key;
+            V value;
+            try {
+                ensureWindow(Integer.BYTES);
+                int length = window.getInt();
+                ensureWindow(length);
+                key = keyCodec.read(window);
+                value = valueCodec.read(window);
+            } catch (IOException | RuntimeException e) {
+                window = null;
+                windowStart = start;
+                throw e;
+            }
+            headOffset = start;
+            remaining--;
+            head = new AdvancedPQ.Entry<>(key, value, -1);
+            return true;
+        }
+
+        /** Remaps so that at least bytes are readable from the current position. */
+        private void ensureWindow(int bytes) throws IOException {
+            long offset = position();
+            if (window != null && window.remaining() >= bytes) return;
+            long length = Math.min(Math.max(READ_WINDOW_BYTES, bytes), fileSize - offset);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            windowStart = offset;
+        }
+
+        private long position() {
+            return window == null ? windowStart : windowStart + window.position();
+        }
+
+        void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+
+        void delete() throws IOException {
+            close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private final int memoryBudget;
+    private final int maxRuns;
+    private final Path spillDir;
+    private final PQCodec<K> keyCodec;
+    private final PQCodec<V> valueCodec;
+    private final boolean isMinHeap;
+    private AdvancedPQ<K, V> hot;
+    private final AdvancedPQ<K, Run> heads;
+    private final List<Run> runs = new ArrayList<>();
+    private ByteBuffer writeBuffer;
+    private long spilledCount;
+
+    public ExternalPQ(int memoryBudget, Path spillDir, PQCodec<K> keyCodec, PQCodec<V> valueCodec) {
+        this(memoryBudget, spillDir, keyCodec, valueCodec, true, DEFAULT_MAX_RUNS);
+    }
+
+    public ExternalPQ(int memoryBudget, Path spillDir, PQCodec<K> keyCodec, PQCodec<V> valueCodec,
+                      boolean isMinHeap, int maxRuns) {
+        if (memoryBudget < 1) throw new IllegalArgumentException("Memory budget must be positive.");
+        if (maxRuns < 2) throw new IllegalArgumentException("At least two runs are required.");
+        this.memoryBudget = memoryBudget;
+        this.maxRuns = maxRuns;
+        this.spillDir = spillDir;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.isMinHeap = isMinHeap;
+        this.hot = newHotHeap();
+        this.heads = new AdvancedPQ<>();
+        if (!isMinHeap) heads.toggle();
+    }
+
+    private AdvancedPQ<K, V> newHotHeap() {
+        AdvancedPQ<K, V> pq = new AdvancedPQ<>(4);
+        if (!isMinHeap) pq.toggle();
+        return pq;
+    }
+
+    public void insert(K key, V value) {
+        if (hot.size() >= memoryBudget) spill();
+        hot.insert(key, value);
+    }
+
+    public AdvancedPQ.Entry<K, V> removeTop() {
+        AdvancedPQ.Entry<K, Run> best = heads.top();
+        AdvancedPQ.Entry<K, V> hotTop = hot.top();
+        if (best == null || (hotTop != null && compare(hotTop.getKey(), best.getKey()) <= 0)) {
+            return hot.removeTop();
+        }
+
+        Run run = best.getValue();
+        AdvancedPQ.Entry<K, V> result = run.head;
+        try {
+            // Count the record as gone only once the run has moved past it.
+            if (run.advance()) {
+                heads.replaceKey(run.handle, run.head.getKey());
+                spilledCount--;
+            } else {
+                heads.remove(run.handle);
+                runs.remove(run);
+                spilledCount--;
+                run.delete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    public AdvancedPQ.Entry<K, V> top() {
+        AdvancedPQ.Entry<K, Run> best = heads.top();
+        AdvancedPQ.Entry<K, V> hotTop = hot.top();
+        if (best == null) return hotTop;
+        if (hotTop != null && compare(hotTop.getKey(), best.getKey()) <= 0) return hotTop;
+        return best.getValue().head;
+    }
+
+    public boolean isEmpty() { return size() == 0; }
+    public long size() { return hot.size() + spilledCount; }
+    public int inMemorySize() { return hot.size(); }
+    public int runCount() { return runs.size(); }
+    public String state() { return isMinHeap ? "Min-Heap" : "Max-Heap"; }
+
+    /** Deletes every spill file; the queue is empty afterwards. */
+    @Override
+    public void close() {
+        IOException failure = null;
+        for (Run run : runs) {
+            try {
+                run.delete();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        runs.clear();
+        while (!heads.isEmpty()) heads.removeTop();
+        hot = newHotHeap();
+        spilledCount = 0;
+        if (failure != null) throw new UncheckedIOException(failure);
+    }
+
+    /**
+     * Writes the hot heap, in priority order, to a new sorted run and drops
+     * it only once the run is registered, then compacts if the run count
+     * exceeds its bound. On failure the hot heap is intact and the partial
+     * file is gone.
+     */
+    private void spill() {
+        try {
+            List<AdvancedPQ.Entry<K, V>> sorted = hot.topK(hot.size());
+            Path file = newRunFile();
+            try {
+                try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    for (AdvancedPQ.Entry<K, V> e : sorted) writeRecord(out, e.getKey(), e.getValue());
+                    flush(out);
+                }
+                addRun(file, sorted.size());
+            } catch (IOException | RuntimeException e) {
+                discard(file, e);
+                throw e;
+            }
+            hot = newHotHeap();
+            if (runs.size() > maxRuns) compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Multiway-merges the smallest half of the runs into one. The merge
+     * reads through fresh cursors positioned at each run's head, so the live
+     * runs are replaced only after the merged run is complete; a failure
+     * leaves every run as it was.
+     */
+    private void compact() throws IOException {
+        List<Run> victims = new ArrayList<>(runs);
+        victims.sort((a, b) -> Long.compare(a.pending(), b.pending()));
+        victims = victims.subList(0, Math.max(2, maxRuns / 2));
+
+        AdvancedPQ<K, Run> cursors = new AdvancedPQ<>();
+        if (!isMinHeap) cursors.toggle();
+        List<Run> opened = new ArrayList<>(victims.size());
+        long count = 0;
+        Path file = newRunFile();
+        try {
+            for (Run victim : victims) {
+                Run cursor = new Run(victim.file, victim.headOffset, victim.pending());
+                opened.add(cursor);
+                cursor.advance();
+                cursor.handle = cursors.insert(cursor.head.getKey(), cursor);
+                count += victim.pending();
+            }
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                while (!cursors.isEmpty()) {
+                    Run cursor = cursors.top().getValue();
+                    writeRecord(out, cursor.head.getKey(), cursor.head.getValue());
+                    if (cursor.advance()) cursors.replaceKey(cursor.handle, cursor.head.getKey());
+                    else cursors.removeTop();
+                }
+                flush(out);
+            }
+            addRun(file, count);
+        } catch (IOException | RuntimeException e) {
+            discard(file, e);
+            throw e;
+        } finally {
+            for (Run cursor : opened) cursor.close();
+        }
+
+        for (Run victim : victims) {
+            heads.remove(victim.handle);
+            runs.remove(victim);
+            spilledCount -= victim.pending();
+        }
+        IOException failure = null;
+        for (Run victim : victims) {
+            try {
+                victim.delete();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private void addRun(Path file, long count) throws IOException {
+        Run run = new Run(file, count);
+        try {
+            run.advance();
+        } catch (IOException | RuntimeException e) {
+            run.close();
+            throw e;
+        }
+        if (run.head == null) {
+            run.delete();
+            return;
+        }
+        run.handle = heads.insert(run.head.getKey(), run);
+        runs.add(run);
+        spilledCount += count;
+    }
+
+    /** Deletes a partially written run after a failure; the buffer is reset for the next write. */
+    private void discard(Path file, Exception cause) {
+        if (writeBuffer != null) writeBuffer.clear();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /** A uniquely named file, so queues sharing spillDir or leftovers from a crash never collide. */
+    private Path newRunFile() throws IOException {
+        Files.createDirectories(spillDir);
+        return Files.createTempFile(spillDir, "apq-run-", ".bin");
+    }
+
+    private void writeRecord(FileChannel out, K key, V value) throws IOException {
+        int length = keyCodec.sizeOf(key) + valueCodec.sizeOf(value);
+        int needed = Integer.BYTES + length;
+        if (writeBuffer == null) writeBuffer = ByteBuffer.allocateDirect(Math.max(WRITE_BUFFER_BYTES, needed));
+        if (writeBuffer.remaining() < needed) {
+            flush(out);
+            if (writeBuffer.capacity() < needed) writeBuffer = ByteBuffer.allocateDirect(needed);
+        }
+        writeBuffer.putInt(length);
+        keyCodec.write(key, writeBuffer);
+        valueCodec.write(value, writeBuffer);
+    }
+
+    private void flush(FileChannel out) throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) out.write(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private int compare(K k1, K k2) {
+        int res = k1.compareTo(k2);
+        return isMinHeap ? res : -res;
+    }
+}
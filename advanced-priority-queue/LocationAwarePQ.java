@@ -0,0 +1,28 @@
+/**
+ * Common contract of the location-aware priority queues.
+ * * Every implementation hands out AdvancedPQ.Entry handles from insert and
+ * accepts them back in remove / replaceKey without searching, so callers can
+ * switch backends without touching their handle bookkeeping.
+ */
+public interface LocationAwarePQ<K extends Comparable<K>, V> {
+
+    AdvancedPQ.Entry<K, V> insert(K key, V value);
+
+    AdvancedPQ.Entry<K, V> removeTop();
+
+    AdvancedPQ.Entry<K, V> remove(AdvancedPQ.Entry<K, V> e);
+
+    K replaceKey(AdvancedPQ.Entry<K, V> e, K newKey);
+
+    AdvancedPQ.Entry<K, V> peekAt(int n);
+
+    AdvancedPQ.Entry<K, V> top();
+
+    void toggle();
+
+    boolean isEmpty();
+
+    int size();
+
+    String state();
+}
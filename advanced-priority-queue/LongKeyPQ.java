@@ -0,0 +1,360 @@
+/**
+ * Primitive-Specialized Priority Queue (long keys).
+ * * Object-free sibling of AdvancedPQ. Keys, payloads and back-pointers live in
+ * parallel arrays and elements are addressed through int handles, so there is
+ * no Entry allocation per element and no boxing of keys on the sift paths.
+ *
+ * Double keys are supported through the order-preserving encoding provided by
+ * encodeDouble / decodeDouble.
+ *
+ * A handle packs a slot-table index (low 24 bits) with a 7-bit generation
+ * that is bumped whenever the index is freed, so a stale handle is rejected
+ * like a stale AdvancedPQ Entry instead of reaching the element that reused
+ * its index. Detection wraps after 128 reuses of one index; at most 2^24
+ * elements can be live at once.
+ */
+public class LongKeyPQ<V> {
+
+    /** Returned by top() when the heap is empty. */
+    public static final int NO_HANDLE = -1;
+
+    private long[] keys;       // slot -> key
+    private Object[] values;   // slot -> payload
+    private int[] handleAt;    // slot -> handle
+    private int[] slotOf;      // handle index -> slot; free indices hold (-2 - nextFree)
+    private byte[] generations; // handle index -> reuse count, packed into the high bits of a handle
+    private int size;
+    private int handleCount;   // handles issued so far (high-water mark)
+    private int freeHandle = -1;
+    private boolean isMinHeap;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int INDEX_BITS = 24;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = 0x7F;
+
+    public LongKeyPQ() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongKeyPQ(int capacity) {
+        if (capacity <= 0) capacity = DEFAULT_CAPACITY;
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.handleAt = new int[capacity];
+        this.slotOf = new int[capacity];
+        this.generations = new byte[capacity];
+        this.size = 0;
+        this.isMinHeap = true;
+    }
+
+    /**
+     * Dynamic State Toggle (O(n)).
+     * Flips the comparison direction and rebuilds with Floyd's construction.
+     */
+    public void toggle() {
+        this.isMinHeap = !this.isMinHeap;
+        if (size > 1) buildHeap();
+    }
+
+    public int insert(long key, V value) {
+        if (size >= keys.length) resize(keys.length * 2);
+        int h = acquireHandle();
+        keys[size] = key;
+        values[size] = value;
+        handleAt[size] = h;
+        slotOf[h] = size;
+        size++;
+        upHeap(size - 1);
+        return handleOf(h);
+    }
+
+    /**
+     * Removes the top element and returns its payload (null when empty).
+     * Read topKey() beforehand if the key is needed.
+     */
+    @SuppressWarnings("unchecked")
+    public V removeTop() {
+        if (isEmpty()) return null;
+        return (V) removeAt(0);
+    }
+
+    /**
+     * Targeted Removal (O(log n)).
+     * Removes the element behind a live handle and returns its payload.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int handle) {
+        return (V) removeAt(slotOf(handle));
+    }
+
+    public long replaceKey(int handle, long newKey) {
+        int i = slotOf(handle);
+        long oldKey = keys[i];
+        keys[i] = newKey;
+
+        if (less(newKey, oldKey)) upHeap(i);
+        else downHeap(i);
+
+        return oldKey;
+    }
+
+    /**
+     * Rank-Based Retrieval (O(n log n)).
+     * Returns the handle of the n-th best element using a frontier of slot
+     * indices; the main arrays are neither mutated nor cloned.
+     */
+    public int peekAt(int n) {
+        if (n < 1 || n > size) throw new IllegalArgumentException("Rank out of bounds.");
+        if (n == 1) return handleAt[0];
+
+        int[] frontier = new int[n + 1];
+        int fSize = 1;
+        frontier[0] = 0;
+
+        for (int r = 0; r < n - 1; r++) {
+            int idx = frontier[0];
+            frontier[0] = frontier[--fSize];
+            fSize = frontierDown(frontier, fSize, 0);
+
+            int left = 2 * idx + 1;
+            int right = 2 * idx + 2;
+            if (left < size) fSize = frontierUp(frontier, fSize, left);
+            if (right < size) fSize = frontierUp(frontier, fSize, right);
+        }
+        return handleOf(handleAt[frontier[0]]);
+    }
+
+    /**
+     * Merge (O(n + m)).
+     * Appends the contents of other and rebuilds once. Elements receive fresh
+     * handles in this heap; other is left unchanged.
+     */
+    public void merge(LongKeyPQ<V> other) {
+        if (other == null || other.isEmpty()) return;
+        int needed = this.size + other.size;
+        if (needed > keys.length) resize(Math.max(needed, keys.length * 2));
+
+        for (int i = 0; i < other.size; i++) {
+            int h = acquireHandle();
+            keys[size] = other.keys[i];
+            values[size] = other.values[i];
+            handleAt[size] = h;
+            slotOf[h] = size;
+            size++;
+        }
+        buildHeap();
+    }
+
+    public int top() { return isEmpty() ? NO_HANDLE : handleOf(handleAt[0]); }
+
+    public long topKey() {
+        if (isEmpty()) throw new IllegalStateException("Heap is empty.");
+        return keys[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V topValue() { return isEmpty() ? null : (V) values[0]; }
+
+    public long getKey(int handle) { return keys[slotOf(handle)]; }
+
+    @SuppressWarnings("unchecked")
+    public V getValue(int handle) { return (V) values[slotOf(handle)]; }
+
+    /** Whether handle is live; false once its element was removed, even if the index is reused. */
+    public boolean contains(int handle) {
+        if (handle < 0) return false;
+        int h = handle & INDEX_MASK;
+        return h < handleCount && slotOf[h] >= 0 && generations[h] == handle >>> INDEX_BITS;
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public String state() { return isMinHeap ? "Min-Heap" : "Max-Heap"; }
+
+    /**
+     * Order-preserving mapping from double to long: a < b implies
+     * encodeDouble(a) < encodeDouble(b) under signed comparison.
+     */
+    public static long encodeDouble(double d) {
+        long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    public static double decodeDouble(long key) {
+        return Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+    }
+
+    private Object removeAt(int i) {
+        Object removed = values[i];
+        releaseHandle(handleAt[i]);
+
+        int last = --size;
+        if (i != last) {
+            long movedKey = keys[last];
+            keys[i] = movedKey;
+            values[i] = values[last];
+            handleAt[i] = handleAt[last];
+            slotOf[handleAt[i]] = i;
+            values[last] = null;
+            if (i > 0 && less(movedKey, keys[(i - 1) / 2])) upHeap(i);
+            else downHeap(i);
+        } else {
+            values[last] = null;
+        }
+        return removed;
+    }
+
+    private void buildHeap() {
+        for (int i = (size - 2) / 2; i >= 0; i--) downHeap(i);
+    }
+
+    /**
+     * Hole-based sift: the moving element is held in locals and written once,
+     * halving the array stores of a swap-based sift.
+     */
+    private void upHeap(int i) {
+        long key = keys[i];
+        Object value = values[i];
+        int handle = handleAt[i];
+
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (!less(key, keys[p])) break;
+            move(p, i);
+            i = p;
+        }
+        place(i, key, value, handle);
+    }
+
+    private void downHeap(int i) {
+        long key = keys[i];
+        Object value = values[i];
+        int handle = handleAt[i];
+
+        while (2 * i + 1 < size) {
+            int target = 2 * i + 1;
+            int right = target + 1;
+            if (right < size && less(keys[right], keys[target])) target = right;
+
+            if (!less(keys[target], key)) break;
+            move(target, i);
+            i = target;
+        }
+        place(i, key, value, handle);
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        handleAt[to] = handleAt[from];
+        slotOf[handleAt[to]] = to;
+    }
+
+    private void place(int i, long key, Object value, int handle) {
+        keys[i] = key;
+        values[i] = value;
+        handleAt[i] = handle;
+        slotOf[handle] = i;
+    }
+
+    private boolean less(long a, long b) {
+        return isMinHeap ? a < b : a > b;
+    }
+
+    private int frontierUp(int[] f, int fSize, int slot) {
+        int i = fSize++;
+        while (i > 0) {
+            int p = (i - 1) / 2;
+            if (!less(keys[slot], keys[f[p]])) break;
+            f[i] = f[p];
+            i = p;
+        }
+        f[i] = slot;
+        return fSize;
+    }
+
+    private int frontierDown(int[] f, int fSize, int i) {
+        if (fSize == 0) return 0;
+        int slot = f[i];
+        while (2 * i + 1 < fSize) {
+            int c = 2 * i + 1;
+            if (c + 1 < fSize && less(keys[f[c + 1]], keys[f[c]])) c++;
+            if (!less(keys[f[c]], keys[slot])) break;
+            f[i] = f[c];
+            i = c;
+        }
+        f[i] = slot;
+        return fSize;
+    }
+
+    private int slotOf(int handle) {
+        if (!contains(handle))
+            throw new IllegalArgumentException("Handle not present in this heap.");
+        return slotOf[handle & INDEX_MASK];
+    }
+
+    /** Public handle for slot-table index h: the index plus its current generation. */
+    private int handleOf(int h) {
+        return h | generations[h] << INDEX_BITS;
+    }
+
+    private int acquireHandle() {
+        if (freeHandle >= 0) {
+            int h = freeHandle;
+            freeHandle = -2 - slotOf[h];
+            return h;
+        }
+        if (handleCount > INDEX_MASK) throw new IllegalStateException("Too many live handles.");
+        if (handleCount >= slotOf.length) {
+            int[] grown = new int[slotOf.length * 2];
+            System.arraycopy(slotOf, 0, grown, 0, handleCount);
+            slotOf = grown;
+            byte[] grownGenerations = new byte[grown.length];
+            System.arraycopy(generations, 0, grownGenerations, 0, handleCount);
+            generations = grownGenerations;
+        }
+        return handleCount++;
+    }
+
+    private void releaseHandle(int h) {
+        generations[h] = (byte) ((generations[h] + 1) & GENERATION_MASK);
+        slotOf[h] = -2 - freeHandle;
+        freeHandle = h;
+    }
+
+    private void resize(int capacity) {
+        long[] newKeys = new long[capacity];
+        Object[] newValues = new Object[capacity];
+        int[] newHandleAt = new int[capacity];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(values, 0, newValues, 0, size);
+        System.arraycopy(handleAt, 0, newHandleAt, 0, size);
+        keys = newKeys;
+        values = newValues;
+        handleAt = newHandleAt;
+    }
+
+    /**
+     * Functional demonstration of the primitive heap.
+     */
+    public static void main(String[] args) {
+        LongKeyPQ<String> pq = new LongKeyPQ<>();
+        System.out.println("Mode: " + pq.state());
+
+        int h1 = pq.insert(50, "Critical");
+        pq.insert(10, "Low");
+        pq.insert(100, "Infeasible");
+
+        System.out.println("Top (Min): " + pq.topKey() + " " + pq.topValue()); // 10 Low
+
+        pq.toggle();
+        System.out.println("Mode: " + pq.state());
+        System.out.println("Top (Max): " + pq.topKey() + " " + pq.topValue()); // 100 Infeasible
+
+        pq.replaceKey(h1, 200);
+        System.out.println("Updated Key 50 -> 200. New Top: " + pq.topValue());
+
+        int third = pq.peekAt(3);
+        System.out.println("3rd Best Element: " + pq.getKey(third) + " " + pq.getValue(third));
+    }
+}
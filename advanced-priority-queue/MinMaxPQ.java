@@ -0,0 +1,232 @@
+/**
+ * Double-Ended Priority Queue backed by a min-max heap.
+ * * Even levels are ordered as a min-heap and odd levels as a max-heap, so both
+ * extremes are always within the first three slots. toggle() only changes
+ * which end is served and never restructures the array.
+ */
+public class MinMaxPQ<K extends Comparable<K>, V> implements LocationAwarePQ<K, V> {
+
+    private AdvancedPQ.Entry<K, V>[] heap;
+    private int size;
+    private boolean servesMin;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    @SuppressWarnings("unchecked")
+    public MinMaxPQ() {
+        this.heap = (AdvancedPQ.Entry<K, V>[]) new AdvancedPQ.Entry[DEFAULT_CAPACITY];
+        this.size = 0;
+        this.servesMin = true;
+    }
+
+    /**
+     * Dynamic State Toggle (O(1)).
+     * Both extremes are maintained at all times; only the served end flips.
+     */
+    public void toggle() {
+        this.servesMin = !this.servesMin;
+    }
+
+    public AdvancedPQ.Entry<K, V> insert(K key, V value) {
+        if (size >= heap.length) resize();
+        AdvancedPQ.Entry<K, V> newEntry = new AdvancedPQ.Entry<>(key, value, size);
+        heap[size] = newEntry;
+        size++;
+        fix(size - 1);
+        return newEntry;
+    }
+
+    public AdvancedPQ.Entry<K, V> top() {
+        return isEmpty() ? null : heap[servesMin ? 0 : maxIndex()];
+    }
+
+    /** The element at the opposite end to top(). */
+    public AdvancedPQ.Entry<K, V> bottom() {
+        return isEmpty() ? null : heap[servesMin ? maxIndex() : 0];
+    }
+
+    public AdvancedPQ.Entry<K, V> removeTop() {
+        if (isEmpty()) return null;
+        return removeAt(servesMin ? 0 : maxIndex());
+    }
+
+    public AdvancedPQ.Entry<K, V> removeBottom() {
+        if (isEmpty()) return null;
+        return removeAt(servesMin ? maxIndex() : 0);
+    }
+
+    /**
+     * Targeted Removal (O(log n)).
+     */
+    public AdvancedPQ.Entry<K, V> remove(AdvancedPQ.Entry<K, V> e) {
+        return removeAt(indexOf(e));
+    }
+
+    public K replaceKey(AdvancedPQ.Entry<K, V> e, K newKey) {
+        int i = indexOf(e);
+        K oldKey = e.key;
+        e.key = newKey;
+        fix(i);
+        return oldKey;
+    }
+
+    /**
+     * Rank-Based Retrieval (O(n log n)).
+     * Min levels bound their whole subtree from below and max levels from
+     * above. Popping a bounding node of the served end exposes its children
+     * as single candidates and its grandchildren as new bounding nodes.
+     */
+    public AdvancedPQ.Entry<K, V> peekAt(int n) {
+        if (n < 1 || n > size) throw new IllegalArgumentException("Rank out of bounds.");
+        if (n == 1) return top();
+
+        // Candidate encoding: slot * 2 + 1 for a subtree bound, slot * 2 for a single slot.
+        AdvancedPQ<K, Integer> auxPQ = new AdvancedPQ<>();
+        if (!servesMin) auxPQ.toggle();
+
+        if (servesMin) {
+            auxPQ.insert(heap[0].key, 1);
+        } else {
+            auxPQ.insert(heap[0].key, 0);
+            if (size > 1) auxPQ.insert(heap[1].key, 3);
+            if (size > 2) auxPQ.insert(heap[2].key, 5);
+        }
+
+        for (int i = 0; i < n - 1; i++) {
+            int code = auxPQ.removeTop().getValue();
+            if ((code & 1) == 0) continue;
+            int idx = code >> 1;
+
+            for (int c = 2 * idx + 1; c <= 2 * idx + 2 && c < size; c++) {
+                auxPQ.insert(heap[c].key, c << 1);
+                for (int g = 2 * c + 1; g <= 2 * c + 2 && g < size; g++) {
+                    auxPQ.insert(heap[g].key, (g << 1) | 1);
+                }
+            }
+        }
+
+        return heap[auxPQ.top().getValue() >> 1];
+    }
+
+    /**
+     * Merge (O(n + m)).
+     * Appends copies of other's entries and runs one bottom-up min-max build.
+     */
+    public void merge(MinMaxPQ<K, V> other) {
+        if (other == null || other.isEmpty()) return;
+        while (this.size + other.size > heap.length) resize();
+
+        for (int i = 0; i < other.size; i++) {
+            AdvancedPQ.Entry<K, V> e = other.heap[i];
+            heap[this.size] = new AdvancedPQ.Entry<>(e.key, e.value, this.size);
+            this.size++;
+        }
+        for (int i = (size - 2) / 2; i >= 0; i--) pushDown(i);
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public String state() { return servesMin ? "Min-Heap" : "Max-Heap"; }
+
+    private int maxIndex() {
+        if (size == 1) return 0;
+        if (size == 2) return 1;
+        return less(heap[1].key, heap[2].key) ? 2 : 1;
+    }
+
+    private int indexOf(AdvancedPQ.Entry<K, V> e) {
+        int i = e.index;
+        if (i < 0 || i >= size || heap[i] != e)
+            throw new IllegalArgumentException("Entry not present in this heap.");
+        return i;
+    }
+
+    private AdvancedPQ.Entry<K, V> removeAt(int i) {
+        AdvancedPQ.Entry<K, V> removed = heap[i];
+        int last = size - 1;
+        if (i != last) swap(i, last);
+        heap[last] = null;
+        size--;
+        if (i < size) fix(i);
+        return removed;
+    }
+
+    /**
+     * Restores the min-max property after the key at slot i changed.
+     * If the element belongs on the other kind of level it is exchanged with
+     * its parent; otherwise it trickles along its own level kind.
+     */
+    private void fix(int i) {
+        boolean minLevel = isMinLevel(i);
+        if (i > 0) {
+            int p = (i - 1) / 2;
+            if (minLevel ? less(heap[p].key, heap[i].key) : less(heap[i].key, heap[p].key)) {
+                swap(i, p);
+                pushUp(p, !minLevel);
+                pushDown(i);
+                return;
+            }
+        }
+        if (pushUp(i, minLevel) == i) pushDown(i);
+    }
+
+    /** Climbs the grandparent chain; returns the final slot. */
+    private int pushUp(int i, boolean minLevel) {
+        while (i > 2) {
+            int gp = ((i - 1) / 2 - 1) / 2;
+            if (minLevel ? less(heap[i].key, heap[gp].key) : less(heap[gp].key, heap[i].key)) {
+                swap(i, gp);
+                i = gp;
+            } else break;
+        }
+        return i;
+    }
+
+    private void pushDown(int i) {
+        boolean minLevel = isMinLevel(i);
+        while (2 * i + 1 < size) {
+            int m = extremeDescendant(i, minLevel);
+            boolean better = minLevel ? less(heap[m].key, heap[i].key) : less(heap[i].key, heap[m].key);
+            if (!better) break;
+
+            swap(m, i);
+            if (m <= 2 * i + 2) break;
+
+            int p = (m - 1) / 2;
+            if (minLevel ? less(heap[p].key, heap[m].key) : less(heap[m].key, heap[p].key)) swap(m, p);
+            i = m;
+        }
+    }
+
+    /** Smallest (min level) or largest (max level) among children and grandchildren. */
+    private int extremeDescendant(int i, boolean minLevel) {
+        int best = 2 * i + 1;
+        int last = Math.min(4 * i + 6, size - 1);
+        for (int c = best + 1; c <= last; c = (c == 2 * i + 2) ? 4 * i + 3 : c + 1) {
+            if (minLevel ? less(heap[c].key, heap[best].key) : less(heap[best].key, heap[c].key)) best = c;
+        }
+        return best;
+    }
+
+    private static boolean isMinLevel(int i) {
+        return (31 - Integer.numberOfLeadingZeros(i + 1)) % 2 == 0;
+    }
+
+    private boolean less(K k1, K k2) {
+        return k1.compareTo(k2) < 0;
+    }
+
+    private void swap(int i, int j) {
+        AdvancedPQ.Entry<K, V> temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        AdvancedPQ.Entry<K, V>[] newHeap = (AdvancedPQ.Entry<K, V>[]) new AdvancedPQ.Entry[heap.length * 2];
+        System.arraycopy(heap, 0, newHeap, 0, size);
+        heap = newHeap;
+    }
+}
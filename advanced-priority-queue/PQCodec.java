@@ -0,0 +1,53 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary codec for keys and values written to disk by ExternalPQ and
+ * PQSnapshot. Encodings are written into and read from NIO buffers.
+ */
+public interface PQCodec<T> {
+
+    /** Exact number of bytes write() will produce for value. */
+    int sizeOf(T value);
+
+    void write(T value, ByteBuffer out);
+
+    T read(ByteBuffer in);
+
+    PQCodec<Long> LONG = new PQCodec<Long>() {
+        public int sizeOf(Long value) { return Long.BYTES; }
+        public void write(Long value, ByteBuffer out) { out.putLong(value); }
+        public Long read(ByteBuffer in) { return in.getLong(); }
+    };
+
+    PQCodec<Integer> INTEGER = new PQCodec<Integer>() {
+        public int sizeOf(Integer value) { return Integer.BYTES; }
+        public void write(Integer value, ByteBuffer out) { out.putInt(value); }
+        public Integer read(ByteBuffer in) { return in.getInt(); }
+    };
+
+    PQCodec<Double> DOUBLE = new PQCodec<Double>() {
+        public int sizeOf(Double value) { return Double.BYTES; }
+        public void write(Double value, ByteBuffer out) { out.putDouble(value); }
+        public Double read(ByteBuffer in) { return in.getDouble(); }
+    };
+
+    /** Length-prefixed UTF-8. */
+    PQCodec<String> STRING = new PQCodec<String>() {
+        public int sizeOf(String value) {
+            return Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        public void write(String value, ByteBuffer out) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.putInt(bytes.length);
+            out.put(bytes);
+        }
+
+        public String read(ByteBuffer in) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
@@ -0,0 +1,386 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Comparison suite: the location-aware queues against java.util.PriorityQueue
+ * on the operations the handle design exists for (insert/removeTop mixes,
+ * decrease-key traces, toggle sweeps, merges, peekAt rank sweeps).
+ * Sizes run from 10^3 to 10^7; every measurement is one CSV row in ns/op,
+ * printed as it completes and optionally written to a file.
+ *
+ * Usage: java -Xmx4g PQComparison [maxN] [results.csv]
+ *
+ * PriorityQueue has no handles, so its decrease-key and toggle baselines
+ * cost O(n) per operation. Their operation counts are capped at WORK_BUDGET
+ * element visits per run so large sizes finish; the ops column records how
+ * many operations were actually timed.
+ */
+public class PQComparison {
+
+    private static final int MIN_N = 1_000;
+    private static final int MAX_N = 10_000_000;
+    private static final int MAX_OPS = 1_000_000;
+    private static final long WORK_BUDGET = 20_000_000L;
+    private static final int MIN_OPS = 16;
+    private static final int LARGE_N = 1_000_000;
+
+    private static final int[] INSERT_PERCENTAGES = {25, 50, 75};
+    private static final int[] DECREASE_PERCENTAGES = {50, 90};
+    private static final int[] TOGGLE_INTERVALS = {10, 100, 1_000};
+    private static final int[] MERGE_DIVISORS = {100, 10, 1};
+    private static final int[] RANKS = {1, 10, 100, 1_000, 10_000};
+    private static final int PEEK_QUERIES = 100;
+
+    private static final String HEADER = "scenario,n,param,impl,ops,ns_per_op,total_ns";
+    private static final List<String> rows = new ArrayList<>();
+
+    /** PriorityQueue element with a mutable key; remove(Object) finds it by identity. */
+    private static final class Item {
+        int key;
+        final int id;
+
+        Item(int key, int id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+
+    private static final Comparator<Item> BY_KEY = Comparator.comparingInt(i -> i.key);
+
+    public static void main(String[] args) {
+        int maxN = args.length > 0 ? Integer.parseInt(args[0]) : MAX_N;
+        System.out.println(HEADER);
+
+        for (int n = MIN_N; n <= maxN; n *= 10) {
+            Integer[] keys = boxedKeys(n, new Random(352));
+            benchmarkMix(n, keys);
+            benchmarkDecreaseKey(n);
+            benchmarkToggle(n, keys);
+            benchmarkMerge(n, keys);
+            benchmarkPeekAt(n, keys);
+        }
+
+        if (args.length > 1) {
+            List<String> lines = new ArrayList<>(rows.size() + 1);
+            lines.add(HEADER);
+            lines.addAll(rows);
+            try {
+                Files.write(Paths.get(args[1]), lines);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /** Handle-based queues measured in every scenario; insertion order fixes the CSV row order. */
+    private static Map<String, Supplier<LocationAwarePQ<Integer, Integer>>> queues() {
+        Map<String, Supplier<LocationAwarePQ<Integer, Integer>>> q = new LinkedHashMap<>();
+        q.put("AdvancedPQ", AdvancedPQ::new);
+        q.put("AdvancedPQ-4ary", () -> new AdvancedPQ<>(4));
+        q.put("MinMaxPQ", MinMaxPQ::new);
+        q.put("PairingPQ", PairingPQ::new);
+        return q;
+    }
+
+    /**
+     * Steady insert/removeTop traffic on a queue prefilled with n keys; the
+     * parameter is the insert percentage.
+     */
+    private static void benchmarkMix(int n, Integer[] keys) {
+        int ops = Math.min(n, MAX_OPS);
+        for (int p : INSERT_PERCENTAGES) {
+            boolean[] inserts = new boolean[ops];
+            Random rng = new Random(777);
+            for (int i = 0; i < ops; i++) inserts[i] = rng.nextInt(100) < p;
+
+            for (Map.Entry<String, Supplier<LocationAwarePQ<Integer, Integer>>> q : queues().entrySet()) {
+                long[] t = measure(n, () -> {
+                    LocationAwarePQ<Integer, Integer> pq = q.getValue().get();
+                    for (Integer k : keys) pq.insert(k, k);
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < ops; i++) {
+                        if (inserts[i]) pq.insert(keys[i], keys[i]);
+                        else pq.removeTop();
+                    }
+                    return new long[] {System.nanoTime() - t0};
+                });
+                row("mix", n, p + "%insert", q.getKey(), ops, t[0]);
+            }
+            long[] t = measure(n, () -> {
+                PriorityQueue<Integer> pq = new PriorityQueue<>(n);
+                Collections.addAll(pq, keys);
+                long t0 = System.nanoTime();
+                for (int i = 0; i < ops; i++) {
+                    if (inserts[i]) pq.add(keys[i]);
+                    else pq.poll();
+                }
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("mix", n, p + "%insert", "PriorityQueue", ops, t[0]);
+        }
+    }
+
+    /**
+     * Dijkstra-like trace on n live ids: each operation lowers the key of a
+     * random id, or (for the rest) pops the best id and re-queues it with a
+     * fresh key, so the size stays n. The parameter is the decrease share.
+     */
+    private static void benchmarkDecreaseKey(int n) {
+        int ops = Math.min(n, MAX_OPS);
+        Random rng = new Random(352);
+        int[] initial = new int[n];
+        for (int i = 0; i < n; i++) initial[i] = (1 << 30) + rng.nextInt(1 << 30);
+
+        for (int p : DECREASE_PERCENTAGES) {
+            int[] targets = new int[ops];
+            int[] deltas = new int[ops];
+            Random trace = new Random(777);
+            for (int i = 0; i < ops; i++) {
+                targets[i] = trace.nextInt(100) < p ? trace.nextInt(n) : -1;
+                deltas[i] = 1 + trace.nextInt(1_000);
+            }
+            String param = p + "%decrease";
+
+            for (Map.Entry<String, Supplier<LocationAwarePQ<Integer, Integer>>> q : queues().entrySet()) {
+                long[] t = measure(n, () -> {
+                    LocationAwarePQ<Integer, Integer> pq = q.getValue().get();
+                    @SuppressWarnings("unchecked")
+                    AdvancedPQ.Entry<Integer, Integer>[] handles = (AdvancedPQ.Entry<Integer, Integer>[]) new AdvancedPQ.Entry[n];
+                    for (int id = 0; id < n; id++) handles[id] = pq.insert(initial[id], id);
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < ops; i++) {
+                        int id = targets[i];
+                        if (id >= 0) {
+                            pq.replaceKey(handles[id], handles[id].getKey() - deltas[i]);
+                        } else {
+                            AdvancedPQ.Entry<Integer, Integer> e = pq.removeTop();
+                            handles[e.getValue()] = pq.insert(initial[e.getValue()], e.getValue());
+                        }
+                    }
+                    return new long[] {System.nanoTime() - t0};
+                });
+                row("decreaseKey", n, param, q.getKey(), ops, t[0]);
+            }
+
+            // remove(Object) scans the backing array: O(n) per decrease.
+            int scanOps = cappedOps(ops, n * (long) p / 100);
+            long[] scan = measure(n, () -> {
+                PriorityQueue<Item> pq = new PriorityQueue<>(n, BY_KEY);
+                Item[] items = new Item[n];
+                for (int id = 0; id < n; id++) pq.add(items[id] = new Item(initial[id], id));
+                long t0 = System.nanoTime();
+                for (int i = 0; i < scanOps; i++) {
+                    int id = targets[i];
+                    if (id >= 0) {
+                        Item item = items[id];
+                        pq.remove(item);
+                        item.key -= deltas[i];
+                        pq.add(item);
+                    } else {
+                        Item item = pq.poll();
+                        item.key = initial[item.id];
+                        pq.add(item);
+                    }
+                }
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("decreaseKey", n, param, "PriorityQueue+remove", scanOps, scan[0]);
+
+            // Lazy deletion: push a replacement and skip superseded copies on poll.
+            long[] lazy = measure(n, () -> {
+                PriorityQueue<Item> pq = new PriorityQueue<>(n, BY_KEY);
+                Item[] live = new Item[n];
+                for (int id = 0; id < n; id++) pq.add(live[id] = new Item(initial[id], id));
+                long t0 = System.nanoTime();
+                for (int i = 0; i < ops; i++) {
+                    int id = targets[i];
+                    if (id >= 0) {
+                        live[id] = new Item(live[id].key - deltas[i], id);
+                        pq.add(live[id]);
+                    } else {
+                        Item item = pq.poll();
+                        while (item != live[item.id]) item = pq.poll();
+                        pq.add(live[item.id] = new Item(initial[item.id], item.id));
+                    }
+                }
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("decreaseKey", n, param, "PriorityQueue+lazy", ops, lazy[0]);
+        }
+    }
+
+    /**
+     * Alternating insert/removeTop with a toggle() every `interval`
+     * operations. PriorityQueue flips by re-adding everything under the
+     * reversed comparator.
+     */
+    private static void benchmarkToggle(int n, Integer[] keys) {
+        for (int interval : TOGGLE_INTERVALS) {
+            String param = "every" + interval;
+            int ops = Math.min(n, MAX_OPS);
+            int linearOps = cappedOps(ops, n / interval);
+
+            for (Map.Entry<String, Supplier<LocationAwarePQ<Integer, Integer>>> q : queues().entrySet()) {
+                boolean constantToggle = q.getKey().equals("MinMaxPQ");
+                int timedOps = constantToggle ? ops : linearOps;
+                long[] t = measure(n, () -> {
+                    LocationAwarePQ<Integer, Integer> pq = q.getValue().get();
+                    for (Integer k : keys) pq.insert(k, k);
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < timedOps; i++) {
+                        if ((i & 1) == 0) pq.insert(keys[i], keys[i]);
+                        else pq.removeTop();
+                        if (i % interval == interval - 1) pq.toggle();
+                    }
+                    return new long[] {System.nanoTime() - t0};
+                });
+                row("toggle", n, param, q.getKey(), timedOps, t[0]);
+            }
+            long[] t = measure(n, () -> {
+                PriorityQueue<Integer> pq = new PriorityQueue<>(n);
+                Collections.addAll(pq, keys);
+                boolean min = true;
+                long t0 = System.nanoTime();
+                for (int i = 0; i < linearOps; i++) {
+                    if ((i & 1) == 0) pq.add(keys[i]);
+                    else pq.poll();
+                    if (i % interval == interval - 1) {
+                        min = !min;
+                        PriorityQueue<Integer> flipped = new PriorityQueue<>(pq.size() + 1,
+                                min ? Comparator.<Integer>naturalOrder() : Comparator.<Integer>reverseOrder());
+                        flipped.addAll(pq);
+                        pq = flipped;
+                    }
+                }
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("toggle", n, param, "PriorityQueue", linearOps, t[0]);
+        }
+    }
+
+    /**
+     * One merge of a queue of n/divisor keys into a queue of n keys; both
+     * are built before the clock starts.
+     */
+    private static void benchmarkMerge(int n, Integer[] keys) {
+        for (int divisor : MERGE_DIVISORS) {
+            int m = n / divisor;
+            String param = "m=" + m;
+            long[] advanced = measure(n, () -> {
+                AdvancedPQ<Integer, Integer> a = new AdvancedPQ<>();
+                AdvancedPQ<Integer, Integer> b = new AdvancedPQ<>();
+                fill(a, b, keys, m);
+                long t0 = System.nanoTime();
+                a.merge(b);
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("merge", n, param, "AdvancedPQ", 1, advanced[0]);
+            long[] minMax = measure(n, () -> {
+                MinMaxPQ<Integer, Integer> a = new MinMaxPQ<>();
+                MinMaxPQ<Integer, Integer> b = new MinMaxPQ<>();
+                fill(a, b, keys, m);
+                long t0 = System.nanoTime();
+                a.merge(b);
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("merge", n, param, "MinMaxPQ", 1, minMax[0]);
+            long[] pairing = measure(n, () -> {
+                PairingPQ<Integer, Integer> a = new PairingPQ<>();
+                PairingPQ<Integer, Integer> b = new PairingPQ<>();
+                fill(a, b, keys, m);
+                long t0 = System.nanoTime();
+                a.merge(b);
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("merge", n, param, "PairingPQ", 1, pairing[0]);
+            long[] library = measure(n, () -> {
+                PriorityQueue<Integer> a = new PriorityQueue<>(n + m);
+                PriorityQueue<Integer> b = new PriorityQueue<>(Math.max(1, m));
+                Collections.addAll(a, keys);
+                for (int i = 0; i < m; i++) b.add(keys[i]);
+                long t0 = System.nanoTime();
+                a.addAll(b);
+                return new long[] {System.nanoTime() - t0};
+            });
+            row("merge", n, param, "PriorityQueue", 1, library[0]);
+        }
+    }
+
+    private static void fill(LocationAwarePQ<Integer, Integer> a, LocationAwarePQ<Integer, Integer> b, Integer[] keys, int m) {
+        for (Integer k : keys) a.insert(k, k);
+        for (int i = 0; i < m; i++) b.insert(keys[i], keys[i]);
+    }
+
+    /**
+     * PEEK_QUERIES rank-k lookups on a queue of n keys. PriorityQueue has no
+     * rank query, so it polls k entries and re-adds them.
+     */
+    private static void benchmarkPeekAt(int n, Integer[] keys) {
+        for (int k : RANKS) {
+            if (k > n) break;
+            String param = "k=" + k;
+            for (Map.Entry<String, Supplier<LocationAwarePQ<Integer, Integer>>> q : queues().entrySet()) {
+                long[] t = measure(n, () -> {
+                    LocationAwarePQ<Integer, Integer> pq = q.getValue().get();
+                    for (Integer key : keys) pq.insert(key, key);
+                    long sum = 0;
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < PEEK_QUERIES; i++) sum += pq.peekAt(k).getKey();
+                    return new long[] {System.nanoTime() - t0, sum};
+                });
+                row("peekAt", n, param, q.getKey(), PEEK_QUERIES, t[0]);
+            }
+            long[] t = measure(n, () -> {
+                PriorityQueue<Integer> pq = new PriorityQueue<>(n);
+                Collections.addAll(pq, keys);
+                Integer[] polled = new Integer[k];
+                long sum = 0;
+                long t0 = System.nanoTime();
+                for (int i = 0; i < PEEK_QUERIES; i++) {
+                    for (int j = 0; j < k; j++) polled[j] = pq.poll();
+                    sum += polled[k - 1];
+                    for (Integer key : polled) pq.add(key);
+                }
+                return new long[] {System.nanoTime() - t0, sum};
+            });
+            row("peekAt", n, param, "PriorityQueue", PEEK_QUERIES, t[0]);
+        }
+    }
+
+    /** Fewer runs at large sizes, where each run spends seconds rebuilding its queue. */
+    private static long[] measure(int n, Benchmark.Scenario scenario) {
+        return n >= LARGE_N ? Benchmark.bestOf(scenario, 1, 3) : Benchmark.bestOf(scenario);
+    }
+
+    /** Operation count for a baseline visiting `visitsPerOp` elements per operation. */
+    private static int cappedOps(int ops, long visitsPerOp) {
+        long affordable = WORK_BUDGET / Math.max(1, visitsPerOp);
+        return (int) Math.max(MIN_OPS, Math.min(ops, affordable));
+    }
+
+    private static Integer[] boxedKeys(int n, Random rng) {
+        int[] raw = Benchmark.randomKeys(n, rng);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) keys[i] = raw[i];
+        return keys;
+    }
+
+    private static void row(String scenario, int n, String param, String impl, long ops, long totalNs) {
+        String line = String.format(Locale.ROOT, "%s,%d,%s,%s,%d,%.1f,%d",
+                scenario, n, param, impl, ops, totalNs / (double) ops, totalNs);
+        rows.add(line);
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hot-Path Counters for an instrumented AdvancedPQ.
+ * * Created by AdvancedPQ.enableMetrics(). While a queue has no metrics
+ * object, each instrumentation point costs a single null check on a field.
+ *
+ * Tracked:
+ * - compares and swaps, counted inside compare() / swap();
+ * - sift depth: levels moved per upHeap / downHeap call (including the
+ *   sifts performed by a Floyd rebuild);
+ * - per-operation latency for insert, removeTop, remove and replaceKey, in
+ *   power-of-two nanosecond buckets;
+ * - rebuilds (Floyd passes) and resizes (array grow / shrink).
+ *
+ * Counters are plain longs: an instrumented queue follows the same
+ * single-writer rule as the queue itself. snapshot() flattens everything into
+ * an ordered name/value map for export to logs or a metrics registry.
+ */
+public final class PQMetrics {
+
+    static final int INSERT = 0;
+    static final int REMOVE_TOP = 1;
+    static final int REMOVE = 2;
+    static final int REPLACE_KEY = 3;
+    private static final String[] OPERATIONS = {"insert", "removeTop", "remove", "replaceKey"};
+    private static final int BUCKETS = 64;
+
+    long compares;
+    long swaps;
+    long rebuilds;
+    long resizes;
+    private final long[] siftDepth = new long[BUCKETS];
+    private final long[][] latency = new long[OPERATIONS.length][BUCKETS];
+    private final long[] operations = new long[OPERATIONS.length];
+
+    PQMetrics() {}
+
+    void recordSift(int depth) {
+        siftDepth[Math.min(depth, BUCKETS - 1)]++;
+    }
+
+    /** Records one operation that started at startNanos. */
+    void recordLatency(int operation, long startNanos) {
+        long elapsed = Math.max(0, System.nanoTime() - startNanos);
+        latency[operation][64 - Long.numberOfLeadingZeros(elapsed) & (BUCKETS - 1)]++;
+        operations[operation]++;
+    }
+
+    public long compares() { return compares; }
+    public long swaps() { return swaps; }
+    public long rebuilds() { return rebuilds; }
+    public long resizes() { return resizes; }
+
+    /** Calls recorded for insert, removeTop, remove or replaceKey. */
+    public long operations(String operation) {
+        return operations[indexOf(operation)];
+    }
+
+    /** Copy of the sift-depth histogram; slot d counts sifts that moved d levels. */
+    public long[] siftDepthHistogram() {
+        return siftDepth.clone();
+    }
+
+    /**
+     * Copy of an operation's latency histogram; slot b counts calls that took
+     * [2^(b-1), 2^b) nanoseconds.
+     */
+    public long[] latencyHistogram(String operation) {
+        return latency[indexOf(operation)].clone();
+    }
+
+    /**
+     * Point-in-time export. Histogram buckets appear only when non-empty, as
+     * "siftDepth.<d>" and "latency.<operation>.le_<2^b>ns".
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        out.put("compares", compares);
+        out.put("swaps", swaps);
+        out.put("rebuilds", rebuilds);
+        out.put("resizes", resizes);
+        for (int op = 0; op < OPERATIONS.length; op++) out.put("operations." + OPERATIONS[op], operations[op]);
+        for (int d = 0; d < BUCKETS; d++) {
+            if (siftDepth[d] != 0) out.put("siftDepth." + d, siftDepth[d]);
+        }
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            for (int b = 0; b < BUCKETS; b++) {
+                if (latency[op][b] != 0) out.put("latency." + OPERATIONS[op] + ".le_" + (1L << b) + "ns", latency[op][b]);
+            }
+        }
+        return out;
+    }
+
+    public void reset() {
+        compares = swaps = rebuilds = resizes = 0;
+        Arrays.fill(siftDepth, 0);
+        Arrays.fill(operations, 0);
+        for (long[] h : latency) Arrays.fill(h, 0);
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    private static int indexOf(String operation) {
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            if (OPERATIONS[op].equals(operation)) return op;
+        }
+        throw new IllegalArgumentException("Unknown operation: " + operation);
+    }
+}
@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for AdvancedPQ's O(n) restructuring: Floyd rebuilds (toggle,
+ * merge, batched insert / key update, snapshot adoption) and array resizes.
+ * Emitted whether or not PQMetrics is enabled; JFR discards it cheaply when
+ * no recording has the event enabled.
+ */
+@Name("apq.Rebuild")
+@Label("Priority Queue Rebuild")
+@Category("Priority Queue")
+@Description("O(n) heap rebuild or array resize")
+class PQRebuildEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Size")
+    int size;
+
+    @Label("Arity")
+    int arity;
+
+    @Label("State")
+    String state;
+}
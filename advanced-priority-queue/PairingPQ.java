@@ -0,0 +1,277 @@
+/**
+ * Meldable Priority Queue backed by a pairing heap.
+ * * Drop-in LocationAwarePQ backend for workloads that merge queues often.
+ * Nodes are AdvancedPQ.Entry handles linked as a heap-ordered multiway tree,
+ * so merge() is a single link (O(1)) and never copies or re-allocates entries.
+ *
+ * Handle ownership is tracked with a union-find of heap tokens: melding only
+ * points the absorbed heap's token at ours, so the handles it issued remain
+ * valid for remove / replaceKey here without touching every node.
+ */
+public class PairingPQ<K extends Comparable<K>, V> implements LocationAwarePQ<K, V> {
+
+    /** Heap identity; tokens of absorbed heaps forward to the absorbing one. */
+    private static final class Token {
+        Token forward;
+    }
+
+    /**
+     * Tree node. prev is the parent for a leftmost child and the previous
+     * sibling otherwise; index is 0 while live and -1 once removed.
+     */
+    private static final class Node<K, V> extends AdvancedPQ.Entry<K, V> {
+        Node<K, V> child, next, prev;
+        Token token;
+
+        Node(K key, V value, Token token) {
+            super(key, value, 0);
+            this.token = token;
+        }
+    }
+
+    private Node<K, V> root;
+    private int size;
+    private boolean isMinHeap;
+    private Token token = new Token();
+    private Node<K, V>[] pairBuffer;
+
+    @SuppressWarnings("unchecked")
+    public PairingPQ() {
+        this.isMinHeap = true;
+        this.pairBuffer = (Node<K, V>[]) new Node[16];
+    }
+
+    public AdvancedPQ.Entry<K, V> insert(K key, V value) {
+        Node<K, V> node = new Node<>(key, value, token);
+        root = link(root, node);
+        size++;
+        return node;
+    }
+
+    public AdvancedPQ.Entry<K, V> removeTop() {
+        if (isEmpty()) return null;
+        Node<K, V> top = root;
+        root = combineSiblings(top.child);
+        if (root != null) root.prev = null;
+        release(top);
+        size--;
+        return top;
+    }
+
+    /**
+     * Targeted Removal (O(log n) amortized).
+     * Cuts the node from its parent, melds its children back into the root.
+     */
+    public AdvancedPQ.Entry<K, V> remove(AdvancedPQ.Entry<K, V> e) {
+        Node<K, V> node = nodeOf(e);
+        if (node == root) return removeTop();
+
+        cut(node);
+        Node<K, V> sub = combineSiblings(node.child);
+        if (sub != null) sub.prev = null;
+        root = link(root, sub);
+        release(node);
+        size--;
+        return node;
+    }
+
+    /**
+     * Improving keys cut the subtree and re-link it (O(1) amortized);
+     * worsening keys detach the node from its children first.
+     */
+    public K replaceKey(AdvancedPQ.Entry<K, V> e, K newKey) {
+        Node<K, V> node = nodeOf(e);
+        K oldKey = node.key;
+        node.key = newKey;
+
+        if (compare(newKey, oldKey) < 0) {
+            if (node != root) {
+                cut(node);
+                root = link(root, node);
+            }
+        } else {
+            Node<K, V> sub = combineSiblings(node.child);
+            if (sub != null) sub.prev = null;
+            node.child = null;
+            if (node == root) {
+                root = link(node, sub);
+            } else {
+                cut(node);
+                root = link(root, link(node, sub));
+            }
+        }
+        return oldKey;
+    }
+
+    /**
+     * Rank-Based Retrieval (O(n log size) amortized).
+     * Every node bounds its subtree, so a frontier search finds the n-th
+     * best. Each visited node first has its children consolidated with the
+     * same two-pass pairing removeTop uses, so it contributes one frontier
+     * candidate instead of its whole child list (after a run of inserts the
+     * root alone holds O(size) children). Contents and handles are unchanged.
+     */
+    public AdvancedPQ.Entry<K, V> peekAt(int n) {
+        if (n < 1 || n > size) throw new IllegalArgumentException("Rank out of bounds.");
+        if (n == 1) return top();
+
+        AdvancedPQ<K, Node<K, V>> auxPQ = new AdvancedPQ<>();
+        if (!isMinHeap) auxPQ.toggle();
+        auxPQ.insert(root.key, root);
+
+        for (int i = 0; i < n - 1; i++) {
+            Node<K, V> best = auxPQ.removeTop().getValue();
+            Node<K, V> c = consolidateChildren(best);
+            if (c != null) auxPQ.insert(c.key, c);
+        }
+        return auxPQ.top().getValue();
+    }
+
+    /** Pairs up node's children into a single subtree and returns it. */
+    private Node<K, V> consolidateChildren(Node<K, V> node) {
+        Node<K, V> c = combineSiblings(node.child);
+        node.child = c;
+        if (c != null) c.prev = node;
+        return c;
+    }
+
+    /**
+     * Meld (O(1); O(m) only if other has the opposite orientation).
+     * Absorbs other's tree by linking roots. other is left empty and every
+     * handle it issued stays valid in this heap.
+     */
+    public void merge(PairingPQ<K, V> other) {
+        if (other == null || other == this || other.isEmpty()) return;
+        if (other.isMinHeap != this.isMinHeap) other.toggle();
+
+        root = link(root, other.root);
+        size += other.size;
+        other.token.forward = this.token;
+
+        other.root = null;
+        other.size = 0;
+        other.token = new Token();
+    }
+
+    /**
+     * Dynamic State Toggle (O(n)).
+     * Unlinks every node and re-pairs them under the flipped order.
+     */
+    public void toggle() {
+        this.isMinHeap = !this.isMinHeap;
+        if (size <= 1) return;
+
+        Node<K, V> list = null;
+        Node<K, V> stack = root;
+        root.prev = null;
+        while (stack != null) {
+            Node<K, V> x = stack;
+            stack = x.next;
+            if (x.child != null) {
+                Node<K, V> last = x.child;
+                while (last.next != null) last = last.next;
+                last.next = stack;
+                stack = x.child;
+            }
+            x.child = null;
+            x.prev = null;
+            x.next = list;
+            list = x;
+        }
+        root = combineSiblings(list);
+        root.prev = null;
+    }
+
+    public AdvancedPQ.Entry<K, V> top() { return root; }
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public String state() { return isMinHeap ? "Min-Heap" : "Max-Heap"; }
+
+    private Node<K, V> nodeOf(AdvancedPQ.Entry<K, V> e) {
+        if (e instanceof Node) {
+            @SuppressWarnings("unchecked")
+            Node<K, V> node = (Node<K, V>) e;
+            if (node.index >= 0 && owner(node) == token) return node;
+        }
+        throw new IllegalArgumentException("Entry not present in this heap.");
+    }
+
+    /** Resolves the node's token with path compression. */
+    private Token owner(Node<K, V> node) {
+        Token t = node.token;
+        while (t.forward != null) {
+            if (t.forward.forward != null) t.forward = t.forward.forward;
+            t = t.forward;
+        }
+        node.token = t;
+        return t;
+    }
+
+    /** Makes the worse root the leftmost child of the better one. */
+    private Node<K, V> link(Node<K, V> a, Node<K, V> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (compare(b.key, a.key) < 0) {
+            Node<K, V> t = a;
+            a = b;
+            b = t;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) a.child.prev = b;
+        a.child = b;
+        a.next = null;
+        return a;
+    }
+
+    private void cut(Node<K, V> node) {
+        if (node.prev.child == node) node.prev.child = node.next;
+        else node.prev.next = node.next;
+        if (node.next != null) node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * Two-pass pairing: link siblings in pairs left to right, then fold the
+     * pairs right to left. The scratch buffer is reused across calls.
+     */
+    private Node<K, V> combineSiblings(Node<K, V> first) {
+        if (first == null) return null;
+        int count = 0;
+        for (Node<K, V> x = first; x != null; ) {
+            Node<K, V> next = x.next;
+            x.prev = null;
+            x.next = null;
+            if (count == pairBuffer.length) growBuffer();
+            pairBuffer[count++] = x;
+            x = next;
+        }
+
+        int pairs = 0;
+        for (int i = 0; i + 1 < count; i += 2) pairBuffer[pairs++] = link(pairBuffer[i], pairBuffer[i + 1]);
+        if ((count & 1) == 1) pairBuffer[pairs++] = pairBuffer[count - 1];
+
+        Node<K, V> result = pairBuffer[pairs - 1];
+        for (int i = pairs - 2; i >= 0; i--) result = link(pairBuffer[i], result);
+        for (int i = 0; i < count; i++) pairBuffer[i] = null;
+        return result;
+    }
+
+    private void release(Node<K, V> node) {
+        node.child = node.next = node.prev = null;
+        node.index = -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void growBuffer() {
+        Node<K, V>[] grown = (Node<K, V>[]) new Node[pairBuffer.length * 2];
+        System.arraycopy(pairBuffer, 0, grown, 0, pairBuffer.length);
+        pairBuffer = grown;
+    }
+
+    private int compare(K k1, K k2) {
+        int res = k1.compareTo(k2);
+        return isMinHeap ? res : -res;
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.Arrays;
+
+/**
+ * Monotone Radix Priority Queue for non-negative long keys.
+ * * Built for Dijkstra and discrete-event simulation, where no key is ever
+ * inserted below the last extracted minimum. Entries are kept in 65 buckets
+ * relative to that minimum: bucket 0 holds keys equal to it and bucket b holds
+ * keys whose highest bit differing from it is bit b-1. Buckets cover disjoint,
+ * increasing key ranges, so extraction only scans the first non-empty bucket
+ * and redistributes it into lower buckets. Each entry moves at most 64 times
+ * over its lifetime, with no comparison-based sifting.
+ *
+ * Entry handles follow the LocationAwarePQ contract: index holds the entry's
+ * position inside its bucket, so remove / replaceKey are O(1) apart from the
+ * amortized redistribution. Non-monotone keys are rejected.
+ */
+public class RadixPQ<V> implements LocationAwarePQ<Long, V> {
+
+    private static final int BUCKETS = 65;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final AdvancedPQ.Entry<Long, V>[][] buckets;
+    private final int[] counts;
+    private int size;
+    private long last;
+    private AdvancedPQ.Entry<Long, V> cachedTop;
+
+    @SuppressWarnings("unchecked")
+    public RadixPQ() {
+        this.buckets = (AdvancedPQ.Entry<Long, V>[][]) new AdvancedPQ.Entry[BUCKETS][];
+        this.counts = new int[BUCKETS];
+        this.size = 0;
+        this.last = 0;
+    }
+
+    public AdvancedPQ.Entry<Long, V> insert(Long key, V value) {
+        long k = checkMonotone(key);
+        AdvancedPQ.Entry<Long, V> e = new AdvancedPQ.Entry<>(key, value, 0);
+        add(bucketOf(k), e);
+        size++;
+        if (cachedTop != null && k < cachedTop.key) cachedTop = null;
+        return e;
+    }
+
+    /**
+     * Extract-Min (amortized O(log C), C = key range).
+     * When bucket 0 is empty, the first non-empty bucket's minimum becomes
+     * the new base and that bucket is spread over the lower buckets.
+     */
+    public AdvancedPQ.Entry<Long, V> removeTop() {
+        if (isEmpty()) return null;
+        if (counts[0] == 0) redistribute();
+        AdvancedPQ.Entry<Long, V> e = buckets[0][--counts[0]];
+        buckets[0][counts[0]] = null;
+        e.index = -1;
+        size--;
+        cachedTop = null;
+        return e;
+    }
+
+    /**
+     * Targeted Removal (O(1)).
+     * Swap-removes the entry from its bucket.
+     */
+    public AdvancedPQ.Entry<Long, V> remove(AdvancedPQ.Entry<Long, V> e) {
+        int b = locate(e);
+        detach(b, e.index);
+        e.index = -1;
+        size--;
+        if (cachedTop == e) cachedTop = null;
+        return e;
+    }
+
+    /**
+     * Key Update (O(1)).
+     * Any new key at or above the last extracted minimum is accepted, so
+     * decrease-key from Dijkstra relaxations is always legal.
+     */
+    public Long replaceKey(AdvancedPQ.Entry<Long, V> e, Long newKey) {
+        int b = locate(e);
+        long k = checkMonotone(newKey);
+        Long oldKey = e.key;
+        detach(b, e.index);
+        e.key = newKey;
+        add(bucketOf(k), e);
+        if (cachedTop == e || (cachedTop != null && k < cachedTop.key)) cachedTop = null;
+        return oldKey;
+    }
+
+    /**
+     * Minimum without restructuring: O(1) when bucket 0 is occupied,
+     * otherwise one scan of the first non-empty bucket (cached until the
+     * next mutation).
+     */
+    public AdvancedPQ.Entry<Long, V> top() {
+        if (isEmpty()) return null;
+        if (counts[0] > 0) return buckets[0][counts[0] - 1];
+        if (cachedTop == null) {
+            int b = firstNonEmpty();
+            cachedTop = buckets[b][minIndex(b)];
+        }
+        return cachedTop;
+    }
+
+    /**
+     * Rank-Based Retrieval (O(65 + b log b)).
+     * Buckets partition the key space in order, so whole buckets are skipped
+     * by count and only the bucket holding rank n is sorted.
+     */
+    @SuppressWarnings("unchecked")
+    public AdvancedPQ.Entry<Long, V> peekAt(int n) {
+        if (n < 1 || n > size) throw new IllegalArgumentException("Rank out of bounds.");
+        int b = 0;
+        while (n > counts[b]) n -= counts[b++];
+
+        AdvancedPQ.Entry<Long, V>[] copy = (AdvancedPQ.Entry<Long, V>[]) new AdvancedPQ.Entry[counts[b]];
+        System.arraycopy(buckets[b], 0, copy, 0, counts[b]);
+        Arrays.sort(copy, (x, y) -> Long.compare(x.key, y.key));
+        return copy[n - 1];
+    }
+
+    /** Radix ordering is defined relative to the minimum only. */
+    public void toggle() {
+        throw new UnsupportedOperationException("Monotone radix queue is min-only.");
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+    public String state() { return "Min-Heap"; }
+
+    /** Last extracted minimum; inserts and key updates may not go below it. */
+    public long lastExtracted() { return last; }
+
+    private void redistribute() {
+        int b = firstNonEmpty();
+        int m = minIndex(b);
+        last = buckets[b][m].key;
+
+        int n = counts[b];
+        AdvancedPQ.Entry<Long, V>[] src = buckets[b];
+        counts[b] = 0;
+        for (int i = 0; i < n; i++) {
+            AdvancedPQ.Entry<Long, V> e = src[i];
+            src[i] = null;
+            add(bucketOf(e.key), e);
+        }
+    }
+
+    private int firstNonEmpty() {
+        int b = 0;
+        while (counts[b] == 0) b++;
+        return b;
+    }
+
+    private int minIndex(int b) {
+        AdvancedPQ.Entry<Long, V>[] bucket = buckets[b];
+        int best = 0;
+        for (int i = 1; i < counts[b]; i++) {
+            if (bucket[i].key < bucket[best].key) best = i;
+        }
+        return best;
+    }
+
+    private int bucketOf(long key) {
+        return key == last ? 0 : 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private long checkMonotone(Long key) {
+        long k = key;
+        if (k < last) throw new IllegalArgumentException("Key " + k + " is below the last extracted minimum " + last + ".");
+        return k;
+    }
+
+    private int locate(AdvancedPQ.Entry<Long, V> e) {
+        int i = e.index;
+        if (i >= 0 && e.key >= last) {
+            int b = bucketOf(e.key);
+            if (i < counts[b] && buckets[b][i] == e) return b;
+        }
+        throw new IllegalArgumentException("Entry not present in this heap.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(int b, AdvancedPQ.Entry<Long, V> e) {
+        AdvancedPQ.Entry<Long, V>[] bucket = buckets[b];
+        if (bucket == null) {
+            bucket = (AdvancedPQ.Entry<Long, V>[]) new AdvancedPQ.Entry[INITIAL_BUCKET_CAPACITY];
+            buckets[b] = bucket;
+        } else if (counts[b] == bucket.length) {
+            AdvancedPQ.Entry<Long, V>[] grown = (AdvancedPQ.Entry<Long, V>[]) new AdvancedPQ.Entry[bucket.length * 2];
+            System.arraycopy(bucket, 0, grown, 0, counts[b]);
+            bucket = grown;
+            buckets[b] = bucket;
+        }
+        e.index = counts[b];
+        bucket[counts[b]++] = e;
+    }
+
+    private void detach(int b, int i) {
+        AdvancedPQ.Entry<Long, V>[] bucket = buckets[b];
+        int lastSlot = --counts[b];
+        if (i != lastSlot) {
+            bucket[i] = bucket[lastSlot];
+            bucket[i].index = i;
+        }
+        bucket[lastSlot] = null;
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Value-to-Entry index used by AdvancedPQ's indexed mode.
+ * Open addressing with linear probing and backward-shift deletion (no
+ * tombstones). Entries already track their own heap slot, so the index maps
+ * a value to its Entry and never needs updating when the heap swaps slots.
+ *
+ * Two layouts are provided:
+ * - ofObjects(): generic values, hashed through hashCode()/equals().
+ * - ofLongIds(): Integer/Long ids stored unboxed in a long[] key table.
+ *   Other Number types are rejected, since longValue() would truncate them.
+ */
+abstract class ValueIndex<V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    Object[] entries;
+    int size;
+    int mask;
+
+    ValueIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    static <V> ValueIndex<V> ofObjects() {
+        return new ObjectIndex<>();
+    }
+
+    static <V extends Number> ValueIndex<V> ofLongIds() {
+        return new LongIdIndex<>();
+    }
+
+    /** Slot holding value, or -1. */
+    abstract int find(V value);
+
+    /** First free slot in value's probe sequence; value must be absent. */
+    abstract int freeSlot(V value);
+
+    abstract void storeKey(int slot, V value);
+
+    abstract void moveKey(int from, int to);
+
+    abstract void clearKey(int slot);
+
+    /** Home slot of the key currently stored at slot. */
+    abstract int homeOf(int slot);
+
+    abstract void allocateKeys(int capacity);
+
+    abstract void rehashFrom(ValueIndex<V> old);
+
+    @SuppressWarnings("unchecked")
+    <K> AdvancedPQ.Entry<K, V> get(V value) {
+        int slot = find(value);
+        return slot < 0 ? null : (AdvancedPQ.Entry<K, V>) entries[slot];
+    }
+
+    boolean contains(V value) {
+        return find(value) >= 0;
+    }
+
+    /** Adds a mapping; the caller guarantees the value is absent. */
+    void put(V value, AdvancedPQ.Entry<?, V> entry) {
+        if ((size + 1) * 4 > entries.length * 3) grow();
+        int slot = freeSlot(value);
+        storeKey(slot, value);
+        entries[slot] = entry;
+        size++;
+    }
+
+    /** Removes value's mapping, closing the gap by shifting later probes back. */
+    void remove(V value) {
+        int hole = find(value);
+        if (hole < 0) return;
+        size--;
+
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (entries[i] == null) break;
+            int home = homeOf(i);
+            boolean movable = (i > hole) ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                moveKey(i, hole);
+                entries[hole] = entries[i];
+                hole = i;
+            }
+        }
+        clearKey(hole);
+        entries[hole] = null;
+    }
+
+    private void allocate(int capacity) {
+        entries = new Object[capacity];
+        mask = capacity - 1;
+        allocateKeys(capacity);
+    }
+
+    private void grow() {
+        ValueIndex<V> old = shallowCopy();
+        allocate(entries.length * 2);
+        size = 0;
+        rehashFrom(old);
+    }
+
+    abstract ValueIndex<V> shallowCopy();
+
+    static int mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /** Generic values: keys live in an Object[] beside the entry table. */
+    private static final class ObjectIndex<V> extends ValueIndex<V> {
+        private Object[] keys;
+
+        int find(V value) {
+            int i = mix(value.hashCode()) & mask;
+            while (entries[i] != null) {
+                if (value.equals(keys[i])) return i;
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        int freeSlot(V value) {
+            int i = mix(value.hashCode()) & mask;
+            while (entries[i] != null) i = (i + 1) & mask;
+            return i;
+        }
+
+        void storeKey(int slot, V value) { keys[slot] = value; }
+        void moveKey(int from, int to) { keys[to] = keys[from]; }
+        void clearKey(int slot) { keys[slot] = null; }
+        int homeOf(int slot) { return mix(keys[slot].hashCode()) & mask; }
+        void allocateKeys(int capacity) { keys = new Object[capacity]; }
+
+        @SuppressWarnings("unchecked")
+        void rehashFrom(ValueIndex<V> old) {
+            ObjectIndex<V> o = (ObjectIndex<V>) old;
+            for (int i = 0; i < o.entries.length; i++) {
+                if (o.entries[i] != null) put((V) o.keys[i], (AdvancedPQ.Entry<?, V>) o.entries[i]);
+            }
+        }
+
+        ValueIndex<V> shallowCopy() {
+            ObjectIndex<V> copy = new ObjectIndex<>();
+            copy.entries = entries;
+            copy.keys = keys;
+            return copy;
+        }
+    }
+
+    /** Integer/Long ids: keys are kept unboxed in a long[]. */
+    private static final class LongIdIndex<V extends Number> extends ValueIndex<V> {
+        private long[] keys;
+
+        int find(V value) {
+            long id = idOf(value);
+            int i = mix(id) & mask;
+            while (entries[i] != null) {
+                if (keys[i] == id) return i;
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        int freeSlot(V value) {
+            int i = mix(idOf(value)) & mask;
+            while (entries[i] != null) i = (i + 1) & mask;
+            return i;
+        }
+
+        void storeKey(int slot, V value) { keys[slot] = idOf(value); }
+        void moveKey(int from, int to) { keys[to] = keys[from]; }
+        void clearKey(int slot) { keys[slot] = 0L; }
+        int homeOf(int slot) { return mix(keys[slot]) & mask; }
+        void allocateKeys(int capacity) { keys = new long[capacity]; }
+
+        @SuppressWarnings("unchecked")
+        void rehashFrom(ValueIndex<V> old) {
+            LongIdIndex<V> o = (LongIdIndex<V>) old;
+            for (int i = 0; i < o.entries.length; i++) {
+                if (o.entries[i] == null) continue;
+                AdvancedPQ.Entry<?, V> e = (AdvancedPQ.Entry<?, V>) o.entries[i];
+                int slot = mix(o.keys[i]) & mask;
+                while (entries[slot] != null) slot = (slot + 1) & mask;
+                keys[slot] = o.keys[i];
+                entries[slot] = e;
+                size++;
+            }
+        }
+
+        /** Exact ids only: Double or BigDecimal values would collide after truncation. */
+        private static long idOf(Number value) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return value.longValue();
+            }
+            throw new IllegalArgumentException("Id index accepts integral ids (Long, Integer), not " + value.getClass().getSimpleName() + ".");
+        }
+
+        ValueIndex<V> shallowCopy() {
+            LongIdIndex<V> copy = new LongIdIndex<>();
+            copy.entries = entries;
+            copy.keys = keys;
+            return copy;
+        }
+    }
+}
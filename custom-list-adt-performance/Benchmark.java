@@ -1,58 +1,355 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Random;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.LinkedList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Performance Benchmarking.
- * Measures execution time in nanoseconds (ns).
+ * Defines the list workloads and runs them through the MicroBench harness.
+ * Every score is the mean time per operation (ns/op) over forked, warmed-up,
+ * time-boxed iterations; see MicroBench for the methodology and options.
+ *
+ * Examples:
+ *   java Benchmark                                  full suite, text table
+ *   java Benchmark getRandom -p n=100000 -p impl=MyArrayList,ArrayList
+ *   java Benchmark -rf csv -rff results.csv         machine-readable output
+ *   java Benchmark readWrite -p threads=8           concurrent lists, 8 threads
+ *   java Benchmark snapshotSet                      versioned writes (persistent vs copying)
+ *   java Benchmark -l                               list case ids
  */
-public class ListTester {
-    private static final int[] N_VALUES = {10, 100, 1000, 10000, 100000};
+public class Benchmark {
+    private static final int[] N_VALUES = {100, 1000, 10000};
+    private static final int[] READ_PERCENTAGES = {100, 90, 50};
+    private static final int SNAPSHOT_INTERVAL = 64;
+    private static final int RETAINED_SNAPSHOTS = 4;
+    private static long sink; // keeps read-only loops from being optimized away
+    private static ExecutorService pool;
 
-    public static void main(String[] args) {
-        Random rng = new Random(352);
+    /** A workload builds its untimed state for one list and returns the timed body (n operations). */
+    private interface Workload {
+        Runnable prepare(Supplier<List<Integer>> factory, int[] values);
+    }
+
+    public static void main(String[] args) throws IOException {
+        MicroBench.Options options = MicroBench.Options.parse(args);
 
-        for (int N : N_VALUES) {
-            int[] base = generateRandomValues(N, rng);
-            System.out.println("Benchmark: N = " + N);
-            
-            List<String> names = Arrays.asList("MyArrayList", "ArrayList (Java)", "MyLinkedList", "LinkedList (Java)");
-            List<Supplier<List<Integer>>> builders = Arrays.asList(
-                MyArrayList::new, ArrayList::new, MyLinkedList::new, LinkedList::new
-            );
+        Map<String, Supplier<List<Integer>>> lists = new LinkedHashMap<>();
+        lists.put("MyArrayList", MyArrayList::new);
+        lists.put("ArrayList", ArrayList::new);
+        lists.put("MyLinkedList", MyLinkedList::new);
+        lists.put("LinkedList", LinkedList::new);
+        lists.put("MyTieredList", MyTieredList::new);
+        lists.put("MyArenaLinkedList", MyArenaLinkedList::new);
+        lists.put("MyPersistentList", () -> MyPersistentList.<Integer>empty().toTransient());
 
-            System.out.println("Strategy           | Start-Insert (ns) | End-Insert (ns) | Random-Insert (ns)");
-            System.out.println("-------------------|-------------------|-----------------|-------------------");
-            
-            for (int i = 0; i < builders.size(); i++) {
-                final Supplier<List<Integer>> sup = builders.get(i);
-                
-                long tStart = measure(() -> {
-                    List<Integer> L = sup.get();
-                    for (int val : base) L.add(0, val);
-                });
+        List<MicroBench.Case> cases = new ArrayList<>();
+        for (int n : options.intParam("n", N_VALUES)) {
+            int[] values = generateRandomValues(n, new Random(352 + n));
+            for (Map.Entry<String, Workload> w : workloads().entrySet()) {
+                for (Map.Entry<String, Supplier<List<Integer>>> l : lists.entrySet()) {
+                    Workload workload = w.getValue();
+                    Supplier<List<Integer>> factory = l.getValue();
+                    cases.add(new MicroBench.Case(w.getKey(), l.getKey(), n, () -> workload.prepare(factory, values)));
+                }
+            }
+            for (Map.Entry<String, Supplier<Runnable>> b : buildGetCases(values).entrySet()) {
+                cases.add(new MicroBench.Case("buildGet", b.getKey(), n, b.getValue()));
+            }
+            for (Map.Entry<String, Supplier<Runnable>> s : snapshotCases(values).entrySet()) {
+                cases.add(new MicroBench.Case("snapshotSet", s.getKey(), n, s.getValue()));
+            }
+            int threads = options.intParam("threads", new int[] {4})[0];
+            for (int reads : READ_PERCENTAGES) {
+                for (Map.Entry<String, Supplier<List<Integer>>> l : concurrentLists().entrySet()) {
+                    Supplier<List<Integer>> factory = l.getValue();
+                    cases.add(new MicroBench.Case("readWrite" + reads, l.getKey(), n,
+                            () -> readWrite(factory, values, reads, threads)));
+                }
+            }
+        }
+        MicroBench.run(Benchmark.class, cases, options);
+    }
 
-                long tEnd = measure(() -> {
-                    List<Integer> L = sup.get();
-                    for (int val : base) L.add(val);
-                });
+    private static Map<String, Workload> workloads() {
+        Map<String, Workload> w = new LinkedHashMap<>();
+        w.put("addFirst", (factory, values) -> {
+            List<Integer> L = factory.get();
+            return () -> {
+                for (int val : values) L.add(0, val);
+            };
+        });
+        w.put("addLast", (factory, values) -> {
+            List<Integer> L = factory.get();
+            return () -> {
+                for (int val : values) L.add(val);
+            };
+        });
+        w.put("addRandom", (factory, values) -> {
+            List<Integer> L = factory.get();
+            return () -> {
+                for (int val : values) L.add(val % (L.size() + 1), val);
+            };
+        });
+        // N inserts into a list of N elements, each within +/-2 of the previous position.
+        w.put("addLocalized", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> {
+                int pos = L.size() / 2;
+                for (int val : values) {
+                    pos = Math.max(0, Math.min(L.size(), pos + val % 5 - 2));
+                    L.add(pos, val);
+                }
+            };
+        });
+        w.put("getRandom", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> {
+                long sum = 0;
+                for (int val : values) sum += L.get(val % values.length);
+                sink = sum;
+            };
+        });
+        w.put("getSequential", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> {
+                long sum = 0;
+                for (int j = 0; j < L.size(); j++) sum += L.get(j);
+                sink = sum;
+            };
+        });
+        w.put("set", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> {
+                for (int val : values) L.set(val % values.length, val);
+            };
+        });
+        w.put("iterate", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> {
+                long sum = 0;
+                for (Integer x : L) sum += x;
+                sink = sum;
+            };
+        });
+        w.put("removeRandom", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> {
+                for (int val : values) L.remove(val % L.size());
+            };
+        });
+        w.put("addAll", (factory, values) -> {
+            List<Integer> source = filled(ArrayList::new, values);
+            List<Integer> L = factory.get();
+            return () -> L.addAll(source);
+        });
+        w.put("removeIf", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> L.removeIf(v -> (v & 1) == 0);
+        });
+        // removeIf's work done one remove(i) at a time, for comparison.
+        w.put("removeLoop", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> {
+                for (int j = L.size() - 1; j >= 0; j--) {
+                    if ((L.get(j) & 1) == 0) L.remove(j);
+                }
+            };
+        });
+        w.put("streamSum", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> sink = L.stream().mapToLong(Integer::longValue).sum();
+        });
+        w.put("parallelSum", (factory, values) -> {
+            List<Integer> L = filled(factory, values);
+            return () -> sink = L.parallelStream().mapToLong(Integer::longValue).sum();
+        });
+        return w;
+    }
 
-                long tRandom = measure(() -> {
-                    List<Integer> L = sup.get();
-                    Random localRng = new Random(777);
-                    for (int val : base) {
-                        int idx = L.isEmpty() ? 0 : localRng.nextInt(L.size() + 1);
-                        L.add(idx, val);
+    /**
+     * Boxed vs Primitive: build by appending, then read back every index.
+     * The harness's allocation column counts everything the build allocates
+     * (boxes, nodes and outgrown arrays).
+     */
+    private static Map<String, Supplier<Runnable>> buildGetCases(int[] base) {
+        int n = base.length;
+        Map<String, Supplier<Runnable>> b = new LinkedHashMap<>();
+        b.put("MyArrayList", () -> () -> {
+            MyArrayList<Integer> L = new MyArrayList<>();
+            for (int val : base) L.add(val);
+            long sum = 0;
+            for (int j = 0; j < n; j++) sum += L.get(j);
+            sink = sum;
+        });
+        b.put("IntArrayList", () -> () -> {
+            IntArrayList L = new IntArrayList();
+            for (int val : base) L.add(val);
+            long sum = 0;
+            for (int j = 0; j < n; j++) sum += L.getInt(j);
+            sink = sum;
+        });
+        b.put("LongArrayList", () -> () -> {
+            LongArrayList L = new LongArrayList();
+            for (int val : base) L.add(val);
+            long sum = 0;
+            for (int j = 0; j < n; j++) sum += L.getLong(j);
+            sink = sum;
+        });
+        b.put("MyLinkedList", () -> () -> {
+            MyLinkedList<Integer> L = new MyLinkedList<>();
+            for (int val : base) L.add(val);
+            long sum = 0;
+            for (int j = 0; j < n; j++) sum += L.get(j);
+            sink = sum;
+        });
+        b.put("IntLinkedList", () -> () -> {
+            IntLinkedList L = new IntLinkedList();
+            for (int val : base) L.add(val);
+            long sum = 0;
+            for (int j = 0; j < n; j++) sum += L.getInt(j);
+            sink = sum;
+        });
+        b.put("LongLinkedList", () -> () -> {
+            LongLinkedList L = new LongLinkedList();
+            for (int val : base) L.add(val);
+            long sum = 0;
+            for (int j = 0; j < n; j++) sum += L.getLong(j);
+            sink = sum;
+        });
+        b.put("OffHeapDirect", () -> () -> {
+            MyOffHeapList<Long> L = new MyOffHeapList<>(FixedWidthCodec.LONG);
+            for (int val : base) L.add((long) val);
+            long sum = 0;
+            for (int j = 0; j < n; j++) sum += L.get(j);
+            sink = sum;
+        });
+        b.put("OffHeapMapped", () -> {
+            Path file;
+            try {
+                file = Files.createTempFile("offheap-list", ".bin");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return () -> {
+                try {
+                    try (MyOffHeapList<Long> L = MyOffHeapList.mapped(file, FixedWidthCodec.LONG)) {
+                        for (int val : base) L.add((long) val);
+                        long sum = 0;
+                        for (int j = 0; j < n; j++) sum += L.get(j);
+                        sink = sum;
                     }
-                });
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+        });
+        return b;
+    }
 
-                System.out.printf("%-18s | %-17d | %-15d | %-17d\n", names.get(i), tStart, tEnd, tRandom);
+    /**
+     * Versioned Writes: N set(i, v) calls on a full list, taking a snapshot
+     * after every SNAPSHOT_INTERVAL of them and keeping the last few alive
+     * (as readers would). Snapshot-free lists pay a full copy each time.
+     */
+    private static Map<String, Supplier<Runnable>> snapshotCases(int[] values) {
+        Map<String, Supplier<Runnable>> s = new LinkedHashMap<>();
+        s.put("MyPersistentList", () -> {
+            MyPersistentList.Transient<Integer> L = MyPersistentList.<Integer>empty().toTransient();
+            return snapshotSet(filled(() -> L, values), list -> L.snapshot(), values);
+        });
+        s.put("MyConcurrentArrayList", () -> {
+            MyConcurrentArrayList<Integer> L = new MyConcurrentArrayList<>();
+            return snapshotSet(filled(() -> L, values), list -> L.snapshot(), values);
+        });
+        s.put("MyArrayList", () -> snapshotSet(filled(MyArrayList::new, values), list -> {
+            MyArrayList<Integer> copy = new MyArrayList<>();
+            copy.addAll(list);
+            return copy;
+        }, values));
+        s.put("ArrayList", () -> snapshotSet(filled(ArrayList::new, values), ArrayList::new, values));
+        return s;
+    }
+
+    private static Runnable snapshotSet(List<Integer> L, UnaryOperator<List<Integer>> snapshot, int[] values) {
+        List<List<Integer>> retained = new ArrayList<>(Collections.nCopies(RETAINED_SNAPSHOTS, null));
+        return () -> {
+            int n = values.length;
+            for (int j = 0; j < n; j++) {
+                L.set(values[j] % n, values[j]);
+                if (j % SNAPSHOT_INTERVAL == 0) retained.set(j / SNAPSHOT_INTERVAL % RETAINED_SNAPSHOTS, snapshot.apply(L));
             }
-            System.out.println();
+        };
+    }
+
+    private static Map<String, Supplier<List<Integer>>> concurrentLists() {
+        Map<String, Supplier<List<Integer>>> lists = new LinkedHashMap<>();
+        lists.put("MyConcurrentArrayList", MyConcurrentArrayList::new);
+        lists.put("SynchronizedList", () -> Collections.synchronizedList(new ArrayList<>()));
+        lists.put("CopyOnWriteArrayList", CopyOnWriteArrayList::new);
+        return lists;
+    }
+
+    /**
+     * Read/Write Ratio: the threads share N operations on a full list; each
+     * is a get(i), or a set(i, v) for (100 - reads)% of them. The score is
+     * wall time per operation, so it falls as reads scale across cores.
+     */
+    private static Runnable readWrite(Supplier<List<Integer>> factory, int[] values, int reads, int threads) {
+        List<Integer> L = filled(factory, values);
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        int n = values.length;
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            tasks.add(() -> {
+                long sum = 0;
+                for (int j = first; j < n; j += threads) {
+                    int val = values[j];
+                    if (val % 100 < reads) sum += L.get(val % n); else L.set(val % n, val);
+                }
+                return sum;
+            });
         }
+        return () -> {
+            try {
+                long sum = 0;
+                for (Future<Long> f : pool.invokeAll(tasks)) sum += f.get();
+                sink = sum;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        };
+    }
+
+    private static List<Integer> filled(Supplier<List<Integer>> factory, int[] values) {
+        List<Integer> L = factory.get();
+        for (int val : values) L.add(val);
+        return L;
     }
 
     private static int[] generateRandomValues(int N, Random r) {
@@ -60,12 +357,4 @@ public class ListTester {
         for (int i = 0; i < N; i++) v[i] = r.nextInt(2 * N + 1);
         return v;
     }
-
-    
-    private static long measure(Runnable task) {
-        long t0 = System.nanoTime();
-        task.run();
-        long t1 = System.nanoTime();
-        return (t1 - t0);
-    }
 }
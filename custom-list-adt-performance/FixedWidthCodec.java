@@ -0,0 +1,33 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary encoding for MyOffHeapList elements.
+ * Every element occupies exactly width() bytes, so index i lives at byte
+ * offset i * width() and can be read in place without deserialization.
+ */
+public interface FixedWidthCodec<E> {
+
+    int width();
+
+    void write(ByteBuffer buf, int offset, E value);
+
+    E read(ByteBuffer buf, int offset);
+
+    FixedWidthCodec<Integer> INT = new FixedWidthCodec<Integer>() {
+        public int width() { return Integer.BYTES; }
+        public void write(ByteBuffer buf, int offset, Integer value) { buf.putInt(offset, value); }
+        public Integer read(ByteBuffer buf, int offset) { return buf.getInt(offset); }
+    };
+
+    FixedWidthCodec<Long> LONG = new FixedWidthCodec<Long>() {
+        public int width() { return Long.BYTES; }
+        public void write(ByteBuffer buf, int offset, Long value) { buf.putLong(offset, value); }
+        public Long read(ByteBuffer buf, int offset) { return buf.getLong(offset); }
+    };
+
+    FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<Double>() {
+        public int width() { return Double.BYTES; }
+        public void write(ByteBuffer buf, int offset, Double value) { buf.putDouble(offset, value); }
+        public Double read(ByteBuffer buf, int offset) { return buf.getDouble(offset); }
+    };
+}
@@ -0,0 +1,177 @@
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Primitive long specialization of MyArrayList.
+ * Same circular layout and grow/shrink-at-25% policy, but values are stored
+ * in a long[], so add/getLong/set/removeAt never box and each element costs
+ * 8 bytes instead of a reference plus a Long object.
+ * asList() exposes a boxing List<Long> view for compatibility.
+ */
+public class LongArrayList {
+    private long[] data;
+    private int head;
+    private int size;
+
+    public LongArrayList() {
+        this(8);
+    }
+
+    public LongArrayList(int capacity) {
+        if (capacity <= 0) capacity = 8;
+        data = new long[capacity];
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        resize(data.length * 2);
+    }
+
+    private void shrink() {
+        if (data.length > 8 && size < data.length / 4) {
+            int newCapacity = data.length / 2;
+            while (newCapacity > 8 && size < newCapacity / 4) newCapacity /= 2;
+            if (newCapacity < 8) newCapacity = 8;
+            resize(newCapacity);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        long[] newData = new long[newCapacity];
+        int firstPart = Math.min(size, data.length - head);
+        System.arraycopy(data, head, newData, 0, firstPart);
+        System.arraycopy(data, 0, newData, firstPart, size - firstPart);
+        data = newData;
+        head = 0;
+    }
+
+    private int slot(int i) {
+        int p = head + i;
+        return p >= data.length ? p - data.length : p;
+    }
+
+    public void add(long value) {
+        if (size == data.length) grow();
+        data[slot(size)] = value;
+        size++;
+    }
+
+    public void add(int index, long value) {
+        validatePositionIndex(index);
+        if (size == data.length) grow();
+        if (index < size - index) {
+            head = (head == 0 ? data.length : head) - 1;
+            shiftLeft(1, index + 1);
+        } else {
+            shiftRight(index, size);
+        }
+        data[slot(index)] = value;
+        size++;
+    }
+
+    public long getLong(int index) {
+        validateElementIndex(index);
+        return data[slot(index)];
+    }
+
+    public long set(int index, long value) {
+        validateElementIndex(index);
+        int p = slot(index);
+        long oldValue = data[p];
+        data[p] = value;
+        return oldValue;
+    }
+
+    /** Removes and returns the element at index (named to avoid remove(Object) overload confusion). */
+    public long removeAt(int index) {
+        validateElementIndex(index);
+        long removedValue = data[slot(index)];
+        if (index < size - 1 - index) {
+            shiftRight(0, index);
+            head = slot(1);
+        } else {
+            shiftLeft(index + 1, size);
+        }
+        size--;
+        shrink();
+        return removedValue;
+    }
+
+    private void shiftRight(int from, int to) {
+        int remaining = to - from;
+        int end = to;
+        while (remaining > 0) {
+            int src = slot(end - 1), dst = slot(end);
+            int run = Math.min(remaining, Math.min(src, dst) + 1);
+            System.arraycopy(data, src - run + 1, data, dst - run + 1, run);
+            remaining -= run;
+            end -= run;
+        }
+    }
+
+    private void shiftLeft(int from, int to) {
+        int remaining = to - from;
+        int start = from;
+        while (remaining > 0) {
+            int src = slot(start), dst = slot(start - 1);
+            int run = Math.min(remaining, data.length - Math.max(src, dst));
+            System.arraycopy(data, src, data, dst, run);
+            remaining -= run;
+            start += run;
+        }
+    }
+
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) action.accept(data[slot(i)]);
+    }
+
+    /** Copies the elements, in order, into a new long[] (two block copies). */
+    public long[] toArray() {
+        long[] out = new long[size];
+        int firstPart = Math.min(size, data.length - head);
+        System.arraycopy(data, head, out, 0, firstPart);
+        System.arraycopy(data, 0, out, firstPart, size - firstPart);
+        return out;
+    }
+
+    /** Boxing List<Long> view backed by this list; writes go through. */
+    public List<Long> asList() {
+        return new AbstractList<Long>() {
+            @Override public Long get(int index) { return getLong(index); }
+            @Override public Long set(int index, Long value) { return LongArrayList.this.set(index, value); }
+            @Override public void add(int index, Long value) { LongArrayList.this.add(index, value); modCount++; }
+            @Override public Long remove(int index) { modCount++; return removeAt(index); }
+            @Override public int size() { return size; }
+        };
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        shrink();
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(data[slot(i)]);
+        }
+        return sb.append("]").toString();
+    }
+
+    private void validatePositionIndex(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+    }
+
+    private void validateElementIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+    }
+}
@@ -0,0 +1,184 @@
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Primitive long specialization of MyLinkedList.
+ * Nodes are slots in parallel arrays (long[] values, int[] next/prev), so
+ * there is neither a Node object nor a Long per element: 16 bytes per
+ * element. Lookups start from the nearest of head, tail or the cached
+ * finger, and freed slots are reused through a free list.
+ * asList() exposes a boxing List<Long> view for compatibility.
+ */
+public class LongLinkedList {
+    private static final int NIL = -1;
+
+    private long[] values;
+    private int[] next;
+    private int[] prev;
+    private int head, tail;
+    private int size;
+    private int highWater;
+    private int freeHead;
+
+    /** Finger: the most recently located slot and its index (NIL when unknown). */
+    private int finger;
+    private int fingerIndex;
+
+    public LongLinkedList() {
+        values = new long[8];
+        next = new int[8];
+        prev = new int[8];
+        head = tail = freeHead = finger = NIL;
+    }
+
+    private int slotAt(int index) {
+        int x;
+        int fromHead = index;
+        int fromTail = size - 1 - index;
+        int fromFinger = finger == NIL ? Integer.MAX_VALUE : Math.abs(index - fingerIndex);
+
+        if (fromFinger <= fromHead && fromFinger <= fromTail) {
+            x = finger;
+            if (index > fingerIndex) {
+                for (int i = fingerIndex; i < index; i++) x = next[x];
+            } else {
+                for (int i = fingerIndex; i > index; i--) x = prev[x];
+            }
+        } else if (fromHead <= fromTail) {
+            x = head;
+            for (int i = 0; i < index; i++) x = next[x];
+        } else {
+            x = tail;
+            for (int i = size - 1; i > index; i--) x = prev[x];
+        }
+        finger = x;
+        fingerIndex = index;
+        return x;
+    }
+
+    private int allocate() {
+        if (freeHead != NIL) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (highWater == values.length) {
+            int newCapacity = values.length * 2;
+            long[] newValues = new long[newCapacity];
+            int[] newNext = new int[newCapacity];
+            int[] newPrev = new int[newCapacity];
+            System.arraycopy(values, 0, newValues, 0, highWater);
+            System.arraycopy(next, 0, newNext, 0, highWater);
+            System.arraycopy(prev, 0, newPrev, 0, highWater);
+            values = newValues;
+            next = newNext;
+            prev = newPrev;
+        }
+        return highWater++;
+    }
+
+    private void linkBefore(long value, int succ, int index) {
+        int slot = allocate();
+        int pred = (succ == NIL) ? tail : prev[succ];
+        values[slot] = value;
+        prev[slot] = pred;
+        next[slot] = succ;
+        if (pred == NIL) head = slot; else next[pred] = slot;
+        if (succ == NIL) tail = slot; else prev[succ] = slot;
+        size++;
+        finger = slot;
+        fingerIndex = index;
+    }
+
+    public void add(long value) {
+        linkBefore(value, NIL, size);
+    }
+
+    public void add(int index, long value) {
+        validatePositionIndex(index);
+        linkBefore(value, index == size ? NIL : slotAt(index), index);
+    }
+
+    public long getLong(int index) {
+        validateElementIndex(index);
+        return values[slotAt(index)];
+    }
+
+    public long set(int index, long value) {
+        validateElementIndex(index);
+        int x = slotAt(index);
+        long oldValue = values[x];
+        values[x] = value;
+        return oldValue;
+    }
+
+    /** Removes and returns the element at index (named to avoid remove(Object) overload confusion). */
+    public long removeAt(int index) {
+        validateElementIndex(index);
+        int x = slotAt(index);
+        long element = values[x];
+        int nx = next[x];
+        int px = prev[x];
+
+        if (px == NIL) head = nx; else next[px] = nx;
+        if (nx == NIL) tail = px; else prev[nx] = px;
+
+        finger = (nx != NIL) ? nx : px;
+        fingerIndex = (nx != NIL) ? index : index - 1;
+
+        next[x] = freeHead;
+        freeHead = x;
+        size--;
+        return element;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (int x = head; x != NIL; x = next[x]) action.accept(values[x]);
+    }
+
+    public long[] toArray() {
+        long[] out = new long[size];
+        int i = 0;
+        for (int x = head; x != NIL; x = next[x]) out[i++] = values[x];
+        return out;
+    }
+
+    /** Boxing List<Long> view backed by this list; writes go through. */
+    public List<Long> asList() {
+        return new AbstractList<Long>() {
+            @Override public Long get(int index) { return getLong(index); }
+            @Override public Long set(int index, Long value) { return LongLinkedList.this.set(index, value); }
+            @Override public void add(int index, Long value) { LongLinkedList.this.add(index, value); modCount++; }
+            @Override public Long remove(int index) { modCount++; return removeAt(index); }
+            @Override public int size() { return size; }
+        };
+    }
+
+    public void clear() {
+        head = tail = freeHead = finger = NIL;
+        size = highWater = 0;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int x = head; x != NIL; x = next[x]) {
+            sb.append(values[x]);
+            if (next[x] != NIL) sb.append(", ");
+        }
+        return sb.append("]").toString();
+    }
+
+    private void validatePositionIndex(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+    }
+
+    private void validateElementIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+    }
+}
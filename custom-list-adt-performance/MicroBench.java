@@ -0,0 +1,375 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-Tree Microbenchmark Harness.
+ * A dependency-free runner modeled on JMH's average-time mode, so the suite
+ * runs offline with nothing but a JDK.
+ *
+ * Each case runs in its own forked JVM (-f), so JIT profiles and heap state
+ * never leak from one implementation into the next. A fork runs -wi warm-up
+ * and -i measured iterations. An iteration is time-boxed (-r ms): it keeps
+ * invoking the case until the timed part reaches the budget, then yields
+ * one ns/op sample. Setup (building the list under test) runs outside the
+ * timed region; allocation is read per thread around the timed region only.
+ *
+ * Results report mean +/- 99.9% confidence half-width (Student t), sample
+ * percentiles and allocated bytes per operation. -rf csv|json with -rff
+ * writes them in machine-readable form for regression tracking.
+ */
+final class MicroBench {
+
+    /** One parameter point: a named benchmark for one implementation and size. */
+    static final class Case {
+        final String benchmark;
+        final String impl;
+        final int n;
+        /** Untimed setup; returns the timed body, which performs n operations. */
+        final Supplier<Runnable> setup;
+
+        Case(String benchmark, String impl, int n, Supplier<Runnable> setup) {
+            this.benchmark = benchmark;
+            this.impl = impl;
+            this.n = n;
+            this.setup = setup;
+        }
+
+        String id() { return benchmark + ":" + impl + ":" + n; }
+    }
+
+    /** Aggregated samples for one case (samples is empty when unsupported). */
+    static final class Result {
+        final Case c;
+        final double[] samples;
+        final double allocPerOp;
+        final double mean, error, p50, p90, p99, min, max;
+
+        Result(Case c, double[] samples, double allocPerOp) {
+            this.c = c;
+            this.samples = samples;
+            this.allocPerOp = allocPerOp;
+            double[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            int k = sorted.length;
+            double sum = 0;
+            for (double s : sorted) sum += s;
+            mean = k == 0 ? Double.NaN : sum / k;
+            double sq = 0;
+            for (double s : sorted) sq += (s - mean) * (s - mean);
+            error = k < 2 ? Double.NaN : studentT999(k - 1) * Math.sqrt(sq / (k - 1)) / Math.sqrt(k);
+            p50 = percentile(sorted, 0.50);
+            p90 = percentile(sorted, 0.90);
+            p99 = percentile(sorted, 0.99);
+            min = k == 0 ? Double.NaN : sorted[0];
+            max = k == 0 ? Double.NaN : sorted[k - 1];
+        }
+
+        boolean supported() { return samples.length > 0; }
+    }
+
+    /** Command-line options; flag names follow JMH where one exists. */
+    static final class Options {
+        final String[] args;
+        Pattern include = Pattern.compile(".*");
+        int warmupIterations = 5;
+        int iterations = 10;
+        int forks = 1;
+        long iterationNanos = 50_000_000L;
+        String resultFormat = "text";
+        Path resultFile;
+        boolean list;
+        String worker;
+        final Map<String, List<String>> params = new LinkedHashMap<>();
+
+        private Options(String[] args) { this.args = args; }
+
+        static Options parse(String[] args) {
+            Options o = new Options(args);
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                switch (a) {
+                    case "-wi": o.warmupIterations = Integer.parseInt(args[++i]); break;
+                    case "-i": o.iterations = Integer.parseInt(args[++i]); break;
+                    case "-f": o.forks = Integer.parseInt(args[++i]); break;
+                    case "-r": o.iterationNanos = Long.parseLong(args[++i]) * 1_000_000L; break;
+                    case "-rf": o.resultFormat = args[++i].toLowerCase(Locale.ROOT); break;
+                    case "-rff": o.resultFile = Paths.get(args[++i]); break;
+                    case "-l": o.list = true; break;
+                    case "-worker": o.worker = args[++i]; break;
+                    case "-p": {
+                        String[] kv = args[++i].split("=", 2);
+                        if (kv.length != 2) throw new IllegalArgumentException("Expected -p name=v1,v2: " + args[i]);
+                        o.params.put(kv[0], Arrays.asList(kv[1].split(",")));
+                        break;
+                    }
+                    default:
+                        if (a.startsWith("-")) throw new IllegalArgumentException("Unknown option: " + a);
+                        o.include = Pattern.compile(a);
+                }
+            }
+            if (o.iterations < 1 || o.warmupIterations < 0 || o.forks < 0 || o.iterationNanos <= 0) {
+                throw new IllegalArgumentException("Iteration counts and time must be positive.");
+            }
+            if (!Arrays.asList("text", "csv", "json").contains(o.resultFormat)) {
+                throw new IllegalArgumentException("Unknown result format: " + o.resultFormat);
+            }
+            return o;
+        }
+
+        /** Values of -p name=..., or the defaults when the parameter is not given. */
+        int[] intParam(String name, int[] defaults) {
+            List<String> v = params.get(name);
+            if (v == null) return defaults;
+            return v.stream().mapToInt(Integer::parseInt).toArray();
+        }
+
+        boolean selects(Case c) {
+            List<String> impls = params.get("impl");
+            return include.matcher(c.benchmark).find() && (impls == null || impls.contains(c.impl));
+        }
+    }
+
+    private MicroBench() {}
+
+    /**
+     * Runs the selected cases and reports them. In a forked worker (-worker)
+     * it runs only the named case and streams its samples to the parent.
+     */
+    static List<Result> run(Class<?> mainClass, List<Case> cases, Options o) throws IOException {
+        List<Case> selected = new ArrayList<>();
+        for (Case c : cases) if (o.selects(c)) selected.add(c);
+
+        if (o.worker != null) {
+            for (Case c : selected) {
+                if (c.id().equals(o.worker)) {
+                    runWorker(c, o);
+                    return new ArrayList<>();
+                }
+            }
+            throw new IllegalArgumentException("No such case: " + o.worker);
+        }
+        if (o.list) {
+            for (Case c : selected) System.out.println(c.id());
+            return new ArrayList<>();
+        }
+
+        System.out.printf("# %d cases, %d fork(s), %d warm-up + %d measured iterations of %d ms%n",
+                selected.size(), o.forks, o.warmupIterations, o.iterations, o.iterationNanos / 1_000_000);
+        List<Result> results = new ArrayList<>();
+        for (Case c : selected) {
+            System.out.printf("# %s%n", c.id());
+            Result r = o.forks == 0 ? runInProcess(c, o) : runForked(mainClass, c, o);
+            results.add(r);
+        }
+        System.out.println();
+        printTable(results);
+        if (o.resultFile != null) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(o.resultFile, StandardCharsets.UTF_8))) {
+                if (o.resultFormat.equals("json")) writeJson(results, out); else writeCsv(results, out);
+            }
+            System.out.println("# Results written to " + o.resultFile);
+        } else if (!o.resultFormat.equals("text")) {
+            PrintWriter out = new PrintWriter(System.out);
+            if (o.resultFormat.equals("json")) writeJson(results, out); else writeCsv(results, out);
+            out.flush();
+        }
+        return results;
+    }
+
+    private static Result runInProcess(Case c, Options o) {
+        List<double[]> samples = new ArrayList<>();
+        try {
+            for (int i = 0; i < o.warmupIterations; i++) iteration(c, o.iterationNanos);
+            for (int i = 0; i < o.iterations; i++) samples.add(iteration(c, o.iterationNanos));
+        } catch (UnsupportedOperationException e) {
+            samples.clear();
+        }
+        return aggregate(c, samples);
+    }
+
+    /** Worker side of a fork: one "#sample nsPerOp allocPerOp" line per measured iteration. */
+    private static void runWorker(Case c, Options o) {
+        try {
+            for (int i = 0; i < o.warmupIterations; i++) iteration(c, o.iterationNanos);
+            for (int i = 0; i < o.iterations; i++) {
+                double[] s = iteration(c, o.iterationNanos);
+                System.out.println("#sample " + s[0] + " " + s[1]);
+            }
+        } catch (UnsupportedOperationException e) {
+            System.out.println("#unsupported");
+        }
+        System.out.flush();
+    }
+
+    private static Result runForked(Class<?> mainClass, Case c, Options o) throws IOException {
+        List<double[]> samples = new ArrayList<>();
+        for (int f = 0; f < o.forks; f++) {
+            List<String> cmd = new ArrayList<>();
+            cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            cmd.add("-cp");
+            cmd.add(System.getProperty("java.class.path"));
+            cmd.add(mainClass.getName());
+            cmd.addAll(Arrays.asList(o.args));
+            cmd.add("-worker");
+            cmd.add(c.id());
+            Process p = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            boolean unsupported = false;
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith("#sample ")) {
+                        String[] parts = line.split(" ");
+                        samples.add(new double[] {Double.parseDouble(parts[1]), Double.parseDouble(parts[2])});
+                    } else if (line.equals("#unsupported")) {
+                        unsupported = true;
+                    } else {
+                        System.out.println(line);
+                    }
+                }
+            }
+            try {
+                if (p.waitFor() != 0) throw new IOException("Fork for " + c.id() + " exited with " + p.exitValue());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for fork " + c.id(), e);
+            }
+            if (unsupported) return aggregate(c, new ArrayList<>());
+        }
+        return aggregate(c, samples);
+    }
+
+    /** One time-boxed iteration; returns {ns/op, allocated bytes/op}. */
+    private static double[] iteration(Case c, long budgetNanos) {
+        long timed = 0;
+        long bytes = 0;
+        long ops = 0;
+        long wallStart = System.nanoTime();
+        do {
+            Runnable body = c.setup.get();
+            long a0 = allocatedBytes();
+            long t0 = System.nanoTime();
+            body.run();
+            long t1 = System.nanoTime();
+            bytes += Math.max(0, allocatedBytes() - a0 - ALLOC_PROBE_BYTES);
+            timed += t1 - t0;
+            ops += c.n;
+        } while (timed < budgetNanos && System.nanoTime() - wallStart < 10 * budgetNanos);
+        return new double[] {(double) timed / ops, (double) bytes / ops};
+    }
+
+    private static Result aggregate(Case c, List<double[]> samples) {
+        double[] ns = new double[samples.size()];
+        double alloc = 0;
+        for (int i = 0; i < ns.length; i++) {
+            ns[i] = samples.get(i)[0];
+            alloc += samples.get(i)[1];
+        }
+        return new Result(c, ns, ns.length == 0 ? Double.NaN : alloc / ns.length);
+    }
+
+    /** What one allocatedBytes() call itself allocates, subtracted from each reading. */
+    private static final long ALLOC_PROBE_BYTES = calibrateAllocationProbe();
+
+    private static long calibrateAllocationProbe() {
+        long least = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long a0 = allocatedBytes();
+            least = Math.min(least, allocatedBytes() - a0);
+        }
+        return least;
+    }
+
+    /** Bytes allocated by the current thread, or 0 where the JVM cannot tell. */
+    static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /** Nearest-rank percentile of an ascending array. */
+    private static double percentile(double[] sorted, double q) {
+        if (sorted.length == 0) return Double.NaN;
+        int rank = (int) Math.ceil(q * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /** Two-sided 99.9% Student t quantiles for df = 1..20. */
+    private static final double[] T999 = {
+        636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+        4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850
+    };
+
+    /**
+     * Two-sided 99.9% Student t quantile: tabulated up to df = 20, then the
+     * Cornish-Fisher expansion around the normal quantile (within ~1%).
+     */
+    static double studentT999(int df) {
+        if (df <= T999.length) return T999[df - 1];
+        double z = 3.2905267314919255;
+        double z3 = z * z * z, z5 = z3 * z * z, z7 = z5 * z * z;
+        double d = df;
+        return z + (z3 + z) / (4 * d)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * d * d)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * d * d * d);
+    }
+
+    private static void printTable(List<Result> results) {
+        System.out.printf("%-16s %-18s %8s %4s %14s   %12s %12s %12s %12s %11s  %s%n",
+                "Benchmark", "Impl", "N", "Cnt", "Score", "Error", "p50", "p90", "p99", "Alloc B/op", "Units");
+        for (Result r : results) {
+            if (!r.supported()) {
+                System.out.printf("%-16s %-18s %8d  (unsupported)%n", r.c.benchmark, r.c.impl, r.c.n);
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%-16s %-18s %8d %4d %14.3f +/- %12.3f %12.3f %12.3f %12.3f %11.1f  ns/op%n",
+                    r.c.benchmark, r.c.impl, r.c.n, r.samples.length, r.mean, r.error, r.p50, r.p90, r.p99, r.allocPerOp);
+        }
+    }
+
+    private static void writeCsv(List<Result> results, PrintWriter out) {
+        out.println("benchmark,impl,n,mode,cnt,score,error,p50,p90,p99,min,max,allocBytesPerOp,unit");
+        for (Result r : results) {
+            if (!r.supported()) continue;
+            out.printf(Locale.ROOT, "%s,%s,%d,avgt,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.1f,ns/op%n",
+                    r.c.benchmark, r.c.impl, r.c.n, r.samples.length, r.mean, nanToZero(r.error),
+                    r.p50, r.p90, r.p99, r.min, r.max, r.allocPerOp);
+        }
+    }
+
+    private static void writeJson(List<Result> results, PrintWriter out) {
+        out.println("[");
+        boolean first = true;
+        for (Result r : results) {
+            if (!r.supported()) continue;
+            if (!first) out.println(",");
+            first = false;
+            out.printf(Locale.ROOT, "  {\"benchmark\": \"%s\", \"impl\": \"%s\", \"n\": %d, \"mode\": \"avgt\", \"cnt\": %d, "
+                            + "\"score\": %.3f, \"error\": %.3f, \"percentiles\": {\"50.0\": %.3f, \"90.0\": %.3f, \"99.0\": %.3f}, "
+                            + "\"min\": %.3f, \"max\": %.3f, \"allocBytesPerOp\": %.1f, \"unit\": \"ns/op\"}",
+                    r.c.benchmark, r.c.impl, r.c.n, r.samples.length, r.mean, nanToZero(r.error),
+                    r.p50, r.p90, r.p99, r.min, r.max, r.allocPerOp);
+        }
+        out.println();
+        out.println("]");
+    }
+
+    private static double nanToZero(double v) { return Double.isNaN(v) ? 0 : v; }
+}
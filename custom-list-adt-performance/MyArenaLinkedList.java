@@ -0,0 +1,366 @@
+import java.util.List;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Arena-Backed Doubly Linked List implementation.
+ * Nodes are slots in parallel arrays (values[], next[], prev[]) linked by
+ * int indices instead of separate Node objects, so the whole list is three
+ * arrays to the GC and traversal reads densely packed memory.
+ *
+ * Freed slots are chained through next[] into a free list and reused by
+ * later inserts. compact() relinks the nodes into physical order (slot i
+ * holds index i). While that order holds (it survives appends and removals
+ * at the tail), get/set read the arrays directly in O(1).
+ */
+public class MyArenaLinkedList<E> implements List<E> {
+    private static final int NIL = -1;
+
+    private Object[] values;
+    private int[] next;
+    private int[] prev;
+    private int head, tail;
+    private int size;
+    private int highWater;
+    private int freeHead;
+    private int modCount;
+
+    /** True while slot i holds index i for every element. */
+    private boolean physicallyOrdered;
+
+    /** Finger: the most recently located slot and its index (NIL when unknown). */
+    private int finger;
+    private int fingerIndex;
+
+    public MyArenaLinkedList() {
+        this(8);
+    }
+
+    public MyArenaLinkedList(int capacity) {
+        if (capacity <= 0) capacity = 8;
+        values = new Object[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        head = tail = freeHead = finger = NIL;
+        size = highWater = 0;
+        physicallyOrdered = true;
+    }
+
+    /**
+     * Traversal Optimization: starts from whichever of head, tail or the
+     * finger is closest.
+     */
+    private int slotAt(int index) {
+        if (physicallyOrdered) return index;
+        int x;
+        int fromHead = index;
+        int fromTail = size - 1 - index;
+        int fromFinger = finger == NIL ? Integer.MAX_VALUE : Math.abs(index - fingerIndex);
+
+        if (fromFinger <= fromHead && fromFinger <= fromTail) {
+            x = finger;
+            if (index > fingerIndex) {
+                for (int i = fingerIndex; i < index; i++) x = next[x];
+            } else {
+                for (int i = fingerIndex; i > index; i--) x = prev[x];
+            }
+        } else if (fromHead <= fromTail) {
+            x = head;
+            for (int i = 0; i < index; i++) x = next[x];
+        } else {
+            x = tail;
+            for (int i = size - 1; i > index; i--) x = prev[x];
+        }
+        finger = x;
+        fingerIndex = index;
+        return x;
+    }
+
+    /** Pops a free slot, or takes the next unused one (doubling the arena when full). */
+    private int allocate() {
+        if (freeHead != NIL) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (highWater == values.length) resize(values.length * 2);
+        return highWater++;
+    }
+
+    private void resize(int newCapacity) {
+        Object[] newValues = new Object[newCapacity];
+        int[] newNext = new int[newCapacity];
+        int[] newPrev = new int[newCapacity];
+        System.arraycopy(values, 0, newValues, 0, highWater);
+        System.arraycopy(next, 0, newNext, 0, highWater);
+        System.arraycopy(prev, 0, newPrev, 0, highWater);
+        values = newValues;
+        next = newNext;
+        prev = newPrev;
+    }
+
+    /** Links a new slot before succ (at the tail when succ is NIL); it lands at index. */
+    private int linkBefore(E element, int succ, int index) {
+        int slot = allocate();
+        int pred = (succ == NIL) ? tail : prev[succ];
+        values[slot] = element;
+        prev[slot] = pred;
+        next[slot] = succ;
+        if (pred == NIL) head = slot; else next[pred] = slot;
+        if (succ == NIL) tail = slot; else prev[succ] = slot;
+        size++;
+        modCount++;
+        physicallyOrdered = physicallyOrdered && succ == NIL && slot == index;
+        finger = slot;
+        fingerIndex = index;
+        return slot;
+    }
+
+    /** Unlinks slot x, currently at index, and pushes it onto the free list. */
+    @SuppressWarnings("unchecked")
+    private E unlink(int x, int index) {
+        E element = (E) values[x];
+        int nx = next[x];
+        int px = prev[x];
+
+        if (px == NIL) head = nx; else next[px] = nx;
+        if (nx == NIL) tail = px; else prev[nx] = px;
+
+        if (finger == x) {
+            finger = (nx != NIL) ? nx : px;
+            fingerIndex = (nx != NIL) ? index : index - 1;
+        } else if (finger != NIL && fingerIndex > index) {
+            fingerIndex--;
+        }
+
+        values[x] = null;
+        prev[x] = NIL;
+        next[x] = freeHead;
+        freeHead = x;
+        size--;
+        modCount++;
+        physicallyOrdered = physicallyOrdered && nx == NIL;
+        return element;
+    }
+
+    /**
+     * Compaction (O(n)).
+     * Copies the elements into fresh arrays in list order, so slot i holds
+     * index i, drops the free list and trims capacity to max(size, 8).
+     */
+    public void compact() {
+        int capacity = Math.max(size, 8);
+        Object[] newValues = new Object[capacity];
+        int[] newNext = new int[capacity];
+        int[] newPrev = new int[capacity];
+        int i = 0;
+        for (int x = head; x != NIL; x = next[x], i++) {
+            newValues[i] = values[x];
+            newPrev[i] = i - 1;
+            newNext[i] = (i + 1 < size) ? i + 1 : NIL;
+        }
+        values = newValues;
+        next = newNext;
+        prev = newPrev;
+        head = (size == 0) ? NIL : 0;
+        tail = size - 1;
+        highWater = size;
+        freeHead = NIL;
+        finger = NIL;
+        physicallyOrdered = true;
+        modCount++;
+    }
+
+    @Override
+    public boolean add(E e) {
+        linkBefore(e, NIL, size);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        validatePositionIndex(index);
+        linkBefore(element, index == size ? NIL : slotAt(index), index);
+    }
+
+    @Override
+    public E remove(int index) {
+        validateElementIndex(index);
+        return unlink(slotAt(index), index);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int i = 0;
+        for (int x = head; x != NIL; x = next[x], i++) {
+            if (o == null ? values[x] == null : o.equals(values[x])) {
+                unlink(x, i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        validateElementIndex(index);
+        return (E) values[slotAt(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        validateElementIndex(index);
+        int x = slotAt(index);
+        E oldValue = (E) values[x];
+        values[x] = element;
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < highWater; i++) values[i] = null;
+        head = tail = freeHead = finger = NIL;
+        size = highWater = 0;
+        physicallyOrdered = true;
+        modCount++;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int x = head; x != NIL; x = next[x]) {
+            sb.append(values[x]);
+            if (next[x] != NIL) sb.append(", ");
+        }
+        return sb.append("]").toString();
+    }
+
+    @Override
+    public Iterator<E> iterator() { return new Cursor(0); }
+
+    @Override
+    public ListIterator<E> listIterator() { return new Cursor(0); }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        validatePositionIndex(index);
+        return new Cursor(index);
+    }
+
+    /**
+     * Bi-directional cursor with O(1) add / remove / set at its position.
+     * Fails fast if the list is modified other than through this cursor.
+     */
+    private class Cursor implements ListIterator<E> {
+        private int nextSlot;
+        private int lastReturned = NIL;
+        private int nextIndex;
+        private int expectedModCount = modCount;
+
+        Cursor(int index) {
+            nextSlot = (index == size) ? NIL : slotAt(index);
+            nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() { return nextIndex < size; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            if (!hasNext()) throw new NoSuchElementException();
+            lastReturned = nextSlot;
+            nextSlot = next[nextSlot];
+            nextIndex++;
+            return (E) values[lastReturned];
+        }
+
+        @Override
+        public boolean hasPrevious() { return nextIndex > 0; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            checkForComodification();
+            if (!hasPrevious()) throw new NoSuchElementException();
+            nextSlot = (nextSlot == NIL) ? tail : prev[nextSlot];
+            lastReturned = nextSlot;
+            nextIndex--;
+            return (E) values[lastReturned];
+        }
+
+        @Override
+        public int nextIndex() { return nextIndex; }
+
+        @Override
+        public int previousIndex() { return nextIndex - 1; }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned == NIL) throw new IllegalStateException();
+            if (nextSlot == lastReturned) {
+                nextSlot = next[lastReturned];
+                unlink(lastReturned, nextIndex);
+            } else {
+                unlink(lastReturned, nextIndex - 1);
+                nextIndex--;
+            }
+            lastReturned = NIL;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastReturned == NIL) throw new IllegalStateException();
+            checkForComodification();
+            values[lastReturned] = e;
+        }
+
+        @Override
+        public void add(E e) {
+            checkForComodification();
+            lastReturned = NIL;
+            linkBefore(e, nextSlot, nextIndex);
+            nextIndex++;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    private void validatePositionIndex(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+    }
+
+    private void validateElementIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+    }
+
+    // --- Interface Stubs (Unsupported Operations) ---
+    @Override public boolean contains(Object o) { throw new UnsupportedOperationException(); }
+    @Override public Object[] toArray() { throw new UnsupportedOperationException(); }
+    @Override public <T> T[] toArray(T[] a) { throw new UnsupportedOperationException(); }
+    @Override public boolean containsAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean addAll(Collection<? extends E> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean addAll(int index, Collection<? extends E> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean removeAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean retainAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override public int indexOf(Object o) { throw new UnsupportedOperationException(); }
+    @Override public int lastIndexOf(Object o) { throw new UnsupportedOperationException(); }
+    @Override public List<E> subList(int fromIndex, int toIndex) { throw new UnsupportedOperationException(); }
+}
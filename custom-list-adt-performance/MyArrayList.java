@@ -1,15 +1,35 @@
+import java.util.Arrays;
 import java.util.List;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * Custom Dynamic Array implementation featuring a proactive resizing policy.
  * Optimized for O(1) random access with amortized O(1) insertions.
+ *
+ * Circular Layout: elements occupy data[] as a ring starting at head, so
+ * inserts and removes at either end are amortized O(1) and a middle
+ * insert/remove shifts only the shorter side (at most n/2 moves).
+ *
+ * Bulk Paths: addAll / removeAll / retainAll / removeIf are single O(n)
+ * passes (block copies or one in-place compaction) followed by at most one
+ * resize. spliterator() is SIZED / SUBSIZED and splits by halving the
+ * index range, so parallelStream() divides the work evenly.
  */
 public class MyArrayList<E> implements List<E> {
     private Object[] data;
+    private int head;
     private int size;
+    private int modCount;
 
     public MyArrayList() {
         this(8);
@@ -18,6 +38,7 @@ public class MyArrayList<E> implements List<E> {
     public MyArrayList(int capacity) {
         if (capacity <= 0) capacity = 8;
         data = new Object[capacity];
+        head = 0;
         size = 0;
     }
 
@@ -26,56 +47,158 @@ public class MyArrayList<E> implements List<E> {
      * halves capacity when utilization drops below 25%.
      */
     private void grow() {
-        int newCapacity = data.length * 2;
-        Object[] newData = new Object[newCapacity];
-        System.arraycopy(data, 0, newData, 0, size);
-        data = newData;
+        resize(data.length * 2);
     }
 
     private void shrink() {
         if (data.length > 8 && size < data.length / 4) {
             int newCapacity = data.length / 2;
+            while (newCapacity > 8 && size < newCapacity / 4) newCapacity /= 2;
             if (newCapacity < 8) newCapacity = 8;
-            Object[] newData = new Object[newCapacity];
-            System.arraycopy(data, 0, newData, 0, size);
-            data = newData;
+            resize(newCapacity);
         }
     }
 
+    /** Grows once: to double the capacity, or straight to minCapacity if that is larger. */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) resize(grownCapacity(minCapacity));
+    }
+
+    private int grownCapacity(int minCapacity) {
+        return minCapacity <= data.length ? data.length : Math.max(data.length * 2, minCapacity);
+    }
+
+    /** Copies the ring into a new array, unwrapped so that head = 0. */
+    private void resize(int newCapacity) {
+        Object[] newData = new Object[newCapacity];
+        copyOut(0, newData, 0, size);
+        data = newData;
+        head = 0;
+    }
+
+    /** Copies logical range [from, from + count) into dst with at most two block copies. */
+    private void copyOut(int from, Object[] dst, int dstPos, int count) {
+        if (count == 0) return;
+        int start = slot(from);
+        int firstPart = Math.min(count, data.length - start);
+        System.arraycopy(data, start, dst, dstPos, firstPart);
+        System.arraycopy(data, 0, dst, dstPos + firstPart, count - firstPart);
+    }
+
+    /** Copies src[0, count) into logical positions starting at 'to', with at most two block copies. */
+    private void copyIn(Object[] src, int to, int count) {
+        if (count == 0) return;
+        int start = slot(to);
+        int firstPart = Math.min(count, data.length - start);
+        System.arraycopy(src, 0, data, start, firstPart);
+        System.arraycopy(src, firstPart, data, 0, count - firstPart);
+    }
+
+    /** Physical slot of logical index i (0 <= i < data.length). */
+    private int slot(int i) {
+        int p = head + i;
+        return p >= data.length ? p - data.length : p;
+    }
+
     @Override
     public boolean add(E e) {
         if (size == data.length) grow();
-        data[size++] = e;
+        data[slot(size)] = e;
+        size++;
+        modCount++;
         return true;
     }
 
+    /**
+     * Shorter-Side Insertion: elements before index move one slot toward
+     * the front (head steps back), or elements from index on move one slot
+     * toward the back, whichever is fewer.
+     */
     @Override
     public void add(int index, E element) {
         validatePositionIndex(index);
         if (size == data.length) grow();
-        System.arraycopy(data, index, data, index + 1, size - index);
-        data[index] = element;
+        if (index < size - index) {
+            head = (head == 0 ? data.length : head) - 1;
+            shiftLeft(1, index + 1);
+        } else {
+            shiftRight(index, size);
+        }
+        data[slot(index)] = element;
         size++;
+        modCount++;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public E remove(int index) {
         validateElementIndex(index);
-        E removedValue = (E) data[index];
-        int numMoved = size - index - 1;
-        if (numMoved > 0) {
-            System.arraycopy(data, index + 1, data, index, numMoved);
+        E removedValue = (E) data[slot(index)];
+        if (index < size - 1 - index) {
+            shiftRight(0, index);
+            data[head] = null;
+            head = slot(1);
+        } else {
+            shiftLeft(index + 1, size);
+            data[slot(size - 1)] = null;
         }
-        data[--size] = null;
+        size--;
+        modCount++;
         shrink();
         return removedValue;
     }
 
+    /**
+     * Moves logical range [from, to) one slot back, last element first.
+     * Each System.arraycopy covers a run where neither side wraps.
+     */
+    private void shiftRight(int from, int to) {
+        int remaining = to - from;
+        int end = to;
+        while (remaining > 0) {
+            int src = slot(end - 1), dst = slot(end);
+            int run = Math.min(remaining, Math.min(src, dst) + 1);
+            System.arraycopy(data, src - run + 1, data, dst - run + 1, run);
+            remaining -= run;
+            end -= run;
+        }
+    }
+
+    /** Moves logical range [from, to) one slot forward, first element first. */
+    private void shiftLeft(int from, int to) {
+        int remaining = to - from;
+        int start = from;
+        while (remaining > 0) {
+            int src = slot(start), dst = slot(start - 1);
+            int run = Math.min(remaining, data.length - Math.max(src, dst));
+            System.arraycopy(data, src, data, dst, run);
+            remaining -= run;
+            start += run;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        validateElementIndex(index);
+        return (E) data[slot(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        validateElementIndex(index);
+        int p = slot(index);
+        E oldValue = (E) data[p];
+        data[p] = element;
+        return oldValue;
+    }
+
     @Override
     public boolean remove(Object o) {
         for (int i = 0; i < size; i++) {
-            if (o == null ? data[i] == null : o.equals(data[i])) {
+            Object x = data[slot(i)];
+            if (o == null ? x == null : o.equals(x)) {
                 remove(i);
                 return true;
             }
@@ -85,8 +208,10 @@ public class MyArrayList<E> implements List<E> {
 
     @Override
     public void clear() {
-        for (int i = 0; i < size; i++) data[i] = null;
+        for (int i = 0; i < size; i++) data[slot(i)] = null;
+        head = 0;
         size = 0;
+        modCount++;
         shrink();
     }
 
@@ -101,7 +226,7 @@ public class MyArrayList<E> implements List<E> {
         StringBuilder sb = new StringBuilder("[");
         for (int i = 0; i < size; i++) {
             if (i > 0) sb.append(", ");
-            sb.append(data[i]);
+            sb.append(data[slot(i)]);
         }
         return sb.append("]").toString();
     }
@@ -114,21 +239,314 @@ public class MyArrayList<E> implements List<E> {
         if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
     }
 
+    @Override
+    public boolean contains(Object o) { return indexOf(o) >= 0; }
+
+    @Override
+    public int indexOf(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(o, data[slot(i)])) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(o, data[slot(i)])) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!contains(o)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] out = new Object[size];
+        copyOut(0, out, 0, size);
+        return out;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size) a = Arrays.copyOf(a, size);
+        copyOut(0, a, 0, size);
+        if (a.length > size) a[size] = null;
+        return a;
+    }
+
+    /** Bulk Append: one capacity check, then at most two block copies. */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] incoming = c.toArray();
+        if (incoming.length == 0) return false;
+        ensureCapacity(size + incoming.length);
+        copyIn(incoming, size, incoming.length);
+        size += incoming.length;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Bulk Insertion: the existing elements are shifted once, not once per
+     * inserted element. The list is rebuilt into a single unwrapped array
+     * (prefix, incoming block, suffix) with three block copies.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        validatePositionIndex(index);
+        if (index == size) return addAll(c);
+        Object[] incoming = c.toArray();
+        if (incoming.length == 0) return false;
+
+        Object[] newData = new Object[grownCapacity(size + incoming.length)];
+        copyOut(0, newData, 0, index);
+        System.arraycopy(incoming, 0, newData, index, incoming.length);
+        copyOut(index, newData, index + incoming.length, size - index);
+        data = newData;
+        head = 0;
+        size += incoming.length;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(e -> !c.contains(e));
+    }
+
+    /**
+     * In-Place Compaction: survivors slide down over removed slots in one
+     * pass, the tail is cleared, and capacity is adjusted at most once
+     * (instead of one shift and one shrink check per removal). If the
+     * filter throws, the unvisited elements are still slid down intact.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        int expectedModCount = modCount;
+        int w = 0;
+        int r = 0;
+        try {
+            for (; r < size; r++) {
+                Object x = data[slot(r)];
+                if (!filter.test((E) x)) {
+                    if (w != r) data[slot(w)] = x;
+                    w++;
+                }
+            }
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        } finally {
+            for (; r < size; r++, w++) data[slot(w)] = data[slot(r)];
+            if (w < size) {
+                for (int i = w; i < size; i++) data[slot(i)] = null;
+                size = w;
+                modCount++;
+            }
+        }
+        if (r == w) return false;
+        shrink();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        int expectedModCount = modCount;
+        for (int i = 0; i < size; i++) {
+            int p = slot(i);
+            data[p] = operator.apply((E) data[p]);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        modCount++;
+    }
+
+    /**
+     * Sorts the backing array directly. A wrapped ring is first unwrapped
+     * so the elements form one contiguous run.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        int expectedModCount = modCount;
+        if (head + size > data.length) resize(data.length);
+        Arrays.sort((E[]) data, head, head + size, c);
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (int i = 0; i < size && modCount == expectedModCount; i++) action.accept((E) data[slot(i)]);
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public Iterator<E> iterator() { return new Itr(0); }
+
+    @Override
+    public ListIterator<E> listIterator() { return new Itr(0); }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        validatePositionIndex(index);
+        return new Itr(index);
+    }
+
+    /** Fail-fast cursor over logical indices. */
+    private class Itr implements ListIterator<E> {
+        private int cursor;
+        private int lastRet = -1;
+        private int expectedModCount = modCount;
+
+        Itr(int index) { cursor = index; }
+
+        @Override
+        public boolean hasNext() { return cursor < size; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            if (cursor >= size) throw new NoSuchElementException();
+            lastRet = cursor++;
+            return (E) data[slot(lastRet)];
+        }
+
+        @Override
+        public boolean hasPrevious() { return cursor > 0; }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            checkForComodification();
+            if (cursor <= 0) throw new NoSuchElementException();
+            lastRet = --cursor;
+            return (E) data[slot(lastRet)];
+        }
+
+        @Override
+        public int nextIndex() { return cursor; }
+
+        @Override
+        public int previousIndex() { return cursor - 1; }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            MyArrayList.this.remove(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            MyArrayList.this.set(lastRet, e);
+        }
+
+        @Override
+        public void add(E e) {
+            checkForComodification();
+            MyArrayList.this.add(cursor++, e);
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Spliterator<E> spliterator() { return new RangeSpliterator(0, -1, 0); }
+
+    /**
+     * Index-range Spliterator. The fence binds on first use; trySplit hands
+     * off the lower half of the remaining range, so every split is exactly
+     * sized. Traversal checks modCount once at the end.
+     */
+    private final class RangeSpliterator implements Spliterator<E> {
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        RangeSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : new RangeSpliterator(lo, index = mid, expectedModCount);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            if (index >= hi) return false;
+            E e = (E) data[slot(index++)];
+            action.accept(e);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            Object[] a = data;
+            int h = head;
+            for (int i = index; i < hi; i++) {
+                int p = h + i;
+                action.accept((E) a[p >= a.length ? p - a.length : p]);
+            }
+            index = hi;
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() { return getFence() - index; }
+
+        @Override
+        public int characteristics() { return ORDERED | SIZED | SUBSIZED; }
+    }
+
     // --- Interface Stubs (Unsupported Operations) ---
-    @Override public boolean contains(Object o) { throw new UnsupportedOperationException(); }
-    @Override public Iterator<E> iterator() { throw new UnsupportedOperationException(); }
-    @Override public Object[] toArray() { throw new UnsupportedOperationException(); }
-    @Override public <T> T[] toArray(T[] a) { throw new UnsupportedOperationException(); }
-    @Override public boolean containsAll(Collection<?> c) { throw new UnsupportedOperationException(); }
-    @Override public boolean addAll(Collection<? extends E> c) { throw new UnsupportedOperationException(); }
-    @Override public boolean addAll(int index, Collection<? extends E> c) { throw new UnsupportedOperationException(); }
-    @Override public boolean removeAll(Collection<?> c) { throw new UnsupportedOperationException(); }
-    @Override public boolean retainAll(Collection<?> c) { throw new UnsupportedOperationException(); }
-    @Override public E get(int index) { throw new UnsupportedOperationException(); }
-    @Override public E set(int index, E element) { throw new UnsupportedOperationException(); }
-    @Override public int indexOf(Object o) { throw new UnsupportedOperationException(); }
-    @Override public int lastIndexOf(Object o) { throw new UnsupportedOperationException(); }
-    @Override public ListIterator<E> listIterator() { throw new UnsupportedOperationException(); }
-    @Override public ListIterator<E> listIterator(int index) { throw new UnsupportedOperationException(); }
     @Override public List<E> subList(int fromIndex, int toIndex) { throw new UnsupportedOperationException(); }
 }
@@ -0,0 +1,586 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Concurrent Dynamic Array for read-mostly workloads.
+ * Elements live in a directory of chunks (up to 1024 slots each) sized by
+ * MyArrayList's grow-at-full, shrink-below-25% policy: below one chunk the
+ * single chunk doubles / halves, beyond that whole chunks are added or
+ * dropped, so growth never copies existing chunks.
+ *
+ * Locking (one StampedLock):
+ * - get / size are lock-free: get reads under an optimistic stamp and only
+ *   falls back to the read lock if a structural write overlapped it.
+ * - set takes the read lock in shared mode and swaps the slot with a
+ *   VarHandle getAndSet, so writers to different chunks never block each
+ *   other (or readers).
+ * - add at the end also shares the read lock while the last chunk has room;
+ *   appenders queue on a small tail monitor, so they do not stop readers or
+ *   point writers anywhere else. Only growing takes the write lock.
+ * - Every other structural write (positional add, remove, addAll, clear)
+ *   takes the write lock; these shift elements chunk by chunk with
+ *   System.arraycopy and do not scale across chunks.
+ * - removeIf / replaceAll / sort run their callback on a snapshot with no
+ *   lock held, so the callback may read this list. The result is installed
+ *   under the write lock only if nothing was written in the meantime;
+ *   otherwise the callback is re-run on a fresh snapshot. After two lost
+ *   races the last run happens under the write lock, with reads served from
+ *   a snapshot. A callback that writes to this list never completes.
+ *
+ * Snapshots: snapshot() copies the chunk directory (n / 1024 references)
+ * and starts a new epoch. Chunks from an older epoch are shared with a
+ * snapshot and are copied before their first write (chunk-level
+ * copy-on-write), so iterators, streams and toArray see one consistent
+ * version of the list and never throw ConcurrentModificationException.
+ * Until the next write, repeated snapshot() calls return the same snapshot
+ * without locking.
+ */
+public class MyConcurrentArrayList<E> implements List<E> {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK - 1;
+    /** Lock-free runs of a bulk callback before it is run under the write lock. */
+    private static final int OPTIMISTIC_ATTEMPTS = 2;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle DIRECTORY_SLOT = MethodHandles.arrayElementVarHandle(Chunk[].class);
+
+    /** A block of element slots, stamped with the epoch it was created in. */
+    private static final class Chunk {
+        final Object[] items;
+        final long epoch;
+
+        Chunk(Object[] items, long epoch) {
+            this.items = items;
+            this.epoch = epoch;
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final Object tailLock = new Object();  // serializes appenders sharing the read lock
+    private Chunk[] chunks;           // replaced only under the write lock
+    private int capacity;
+    private volatile int size;
+    private long epoch;               // advanced by every snapshot, under the write lock
+    private volatile Snapshot<E> lastSnapshot;
+
+    public MyConcurrentArrayList() {
+        chunks = new Chunk[] {new Chunk(new Object[8], 0)};
+        capacity = 8;
+    }
+
+    /**
+     * Resizing Policy: Doubles capacity on growth;
+     * halves capacity when utilization drops below 25%.
+     */
+    private void grow() {
+        reallocate(capacity * 2);
+    }
+
+    private void shrink() {
+        if (capacity > 8 && size < capacity / 4) {
+            int newCapacity = capacity / 2;
+            if (newCapacity < 8) newCapacity = 8;
+            reallocate(newCapacity);
+        }
+    }
+
+    /**
+     * Re-chunks the storage for newCapacity elements (write lock held). Full
+     * chunks are kept as they are; only a single sub-chunk array is ever
+     * copied.
+     */
+    private void reallocate(int newCapacity) {
+        int chunkLength = Math.min(newCapacity, CHUNK);
+        int count = newCapacity / chunkLength;
+        Chunk[] next = new Chunk[count];
+        for (int k = 0; k < count; k++) {
+            Chunk old = k < chunks.length ? chunks[k] : null;
+            if (old != null && old.items.length == chunkLength) {
+                next[k] = old;
+            } else {
+                Object[] items = new Object[chunkLength];
+                if (old != null) System.arraycopy(old.items, 0, items, 0, Math.min(chunkLength, old.items.length));
+                next[k] = new Chunk(items, epoch);
+            }
+        }
+        chunks = next;
+        capacity = newCapacity;
+    }
+
+    /** Chunk k's slots, copied first if a snapshot still shares them (write lock held). */
+    private Object[] writable(int k) {
+        Chunk c = chunks[k];
+        if (c.epoch != epoch) {
+            c = new Chunk(c.items.clone(), epoch);
+            chunks[k] = c;
+        }
+        return c.items;
+    }
+
+    /** As writable(), for set() / add() callers that share the read lock: racing copies resolve by CAS. */
+    private Object[] writableShared(int k) {
+        while (true) {
+            Chunk c = (Chunk) DIRECTORY_SLOT.getAcquire(chunks, k);
+            if (c.epoch == epoch) return c.items;
+            Chunk copy = new Chunk(c.items.clone(), epoch);
+            if (DIRECTORY_SLOT.compareAndSet(chunks, k, c, copy)) return copy.items;
+        }
+    }
+
+    private Object[] items(int index) { return chunks[index >>> CHUNK_SHIFT].items; }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Chunk[] cs = chunks;
+            boolean inRange = index >= 0 && index < size;
+            Object value = null;
+            int k = index >>> CHUNK_SHIFT;
+            if (inRange && cs != null && k < cs.length) {
+                Chunk c = (Chunk) DIRECTORY_SLOT.getAcquire(cs, k);
+                int off = index & CHUNK_MASK;
+                if (c != null && off < c.items.length) value = SLOT.getAcquire(c.items, off);
+            }
+            if (lock.validate(stamp)) {
+                if (!inRange) throw new IndexOutOfBoundsException();
+                return (E) value;
+            }
+        } else {
+            // Write-locked: a published snapshot is still the current contents.
+            Snapshot<E> s = lastSnapshot;
+            if (s != null) return s.get(index);
+        }
+        stamp = lock.readLock();
+        try {
+            validateElementIndex(index);
+            Chunk c = (Chunk) DIRECTORY_SLOT.getAcquire(chunks, index >>> CHUNK_SHIFT);
+            return (E) SLOT.getAcquire(c.items, index & CHUNK_MASK);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        long stamp = lock.readLock();
+        try {
+            validateElementIndex(index);
+            if (lastSnapshot != null) lastSnapshot = null;
+            Object[] items = writableShared(index >>> CHUNK_SHIFT);
+            return (E) SLOT.getAndSet(items, index & CHUNK_MASK, element);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean add(E e) {
+        long stamp = lock.readLock();
+        try {
+            synchronized (tailLock) {
+                int s = size;
+                if (s < capacity) {
+                    if (lastSnapshot != null) lastSnapshot = null;
+                    // Publish the slot before the volatile size write that makes it readable.
+                    SLOT.setRelease(writableShared(s >>> CHUNK_SHIFT), s & CHUNK_MASK, e);
+                    size = s + 1;
+                    return true;
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        stamp = lock.writeLock();
+        try {
+            if (size == capacity) grow();
+            writable(size >>> CHUNK_SHIFT)[size & CHUNK_MASK] = e;
+            size++;
+            lastSnapshot = null;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void add(int index, E element) {
+        long stamp = lock.writeLock();
+        try {
+            validatePositionIndex(index);
+            if (size == capacity) grow();
+            move(index, index + 1, size - index);
+            writable(index >>> CHUNK_SHIFT)[index & CHUNK_MASK] = element;
+            size++;
+            lastSnapshot = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public E remove(int index) {
+        long stamp = lock.writeLock();
+        try {
+            validateElementIndex(index);
+            return removeAt(index);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(o, items(i)[i & CHUNK_MASK])) {
+                    removeAt(i);
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Write lock held. */
+    @SuppressWarnings("unchecked")
+    private E removeAt(int index) {
+        E removedValue = (E) items(index)[index & CHUNK_MASK];
+        move(index + 1, index, size - index - 1);
+        int last = size - 1;
+        writable(last >>> CHUNK_SHIFT)[last & CHUNK_MASK] = null;
+        size = last;
+        lastSnapshot = null;
+        shrink();
+        return removedValue;
+    }
+
+    /**
+     * Copies [from, from + count) to [to, to + count) one chunk-bounded run
+     * at a time, back to front when moving right so overlapping ranges are
+     * safe (write lock held).
+     */
+    private void move(int from, int to, int count) {
+        if (to > from) {
+            while (count > 0) {
+                int srcEnd = from + count;
+                int dstEnd = to + count;
+                int run = Math.min(count, Math.min(((srcEnd - 1) & CHUNK_MASK) + 1, ((dstEnd - 1) & CHUNK_MASK) + 1));
+                Object[] dst = writable((dstEnd - run) >>> CHUNK_SHIFT);
+                System.arraycopy(items(srcEnd - run), (srcEnd - run) & CHUNK_MASK, dst, (dstEnd - run) & CHUNK_MASK, run);
+                count -= run;
+            }
+        } else {
+            while (count > 0) {
+                int run = Math.min(count, CHUNK - Math.max(from & CHUNK_MASK, to & CHUNK_MASK));
+                Object[] dst = writable(to >>> CHUNK_SHIFT);
+                System.arraycopy(items(from), from & CHUNK_MASK, dst, to & CHUNK_MASK, run);
+                from += run;
+                to += run;
+                count -= run;
+            }
+        }
+    }
+
+    /** Bulk Append: the incoming array is copied in chunk-sized runs under one write lock. */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] incoming = c.toArray();
+        if (incoming.length == 0) return false;
+        long stamp = lock.writeLock();
+        try {
+            while (capacity < size + incoming.length) grow();
+            copyIn(incoming, size);
+            size += incoming.length;
+            lastSnapshot = null;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        Object[] incoming = c.toArray();
+        long stamp = lock.writeLock();
+        try {
+            validatePositionIndex(index);
+            if (incoming.length == 0) return false;
+            while (capacity < size + incoming.length) grow();
+            move(index, index + incoming.length, size - index);
+            copyIn(incoming, index);
+            size += incoming.length;
+            lastSnapshot = null;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Copies src into positions [to, to + src.length) (write lock held). */
+    private void copyIn(Object[] src, int to) {
+        int done = 0;
+        while (done < src.length) {
+            int p = to + done;
+            Object[] dst = writable(p >>> CHUNK_SHIFT);
+            int run = Math.min(src.length - done, dst.length - (p & CHUNK_MASK));
+            System.arraycopy(src, done, dst, p & CHUNK_MASK, run);
+            done += run;
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(e -> !c.contains(e));
+    }
+
+    /**
+     * Single-Pass Compaction: survivors are gathered from a snapshot with no
+     * lock held, then installed under one write lock and capacity is
+     * adjusted once. If the filter throws, the list is left unchanged.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        return rewrite(flat -> {
+            int w = 0;
+            for (Object x : flat) {
+                if (!filter.test((E) x)) flat[w++] = x;
+            }
+            return w == flat.length ? -1 : w;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        rewrite(flat -> {
+            for (int i = 0; i < flat.length; i++) flat[i] = operator.apply((E) flat[i]);
+            return flat.length;
+        });
+    }
+
+    /** Sorts a flat copy of a snapshot with no lock held, then installs it. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        rewrite(flat -> {
+            Arrays.sort((E[]) flat, c);
+            return flat.length;
+        });
+    }
+
+    /** Rewrites a flat copy in place; returns the new length, or -1 for no change. */
+    private interface Rewrite {
+        int apply(Object[] flat);
+    }
+
+    /**
+     * Runs r on a fresh snapshot and installs the result, at most
+     * OPTIMISTIC_ATTEMPTS times. If a write lands between snapshot and
+     * install every time, r runs once more under the write lock, so a steady
+     * writer cannot starve it. Reads made by r in that final pass are served
+     * from the snapshot published under the lock.
+     */
+    private boolean rewrite(Rewrite r) {
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            Snapshot<E> base = currentSnapshot();
+            Object[] flat = base.toArray();
+            int n = r.apply(flat);
+            if (n < 0) return false;
+            if (install(base, flat, n)) return true;
+        }
+        long stamp = lock.writeLock();
+        try {
+            Object[] flat = snapshotLocked().toArray();
+            int n = r.apply(flat);
+            if (n < 0) return false;
+            overwrite(flat, n);
+            shrink();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replaces the contents with src[0, n) if the list is still exactly the
+     * version captured by base; returns false (and writes nothing) if any
+     * write happened since. Every write clears lastSnapshot, so identity
+     * with base proves there was none.
+     */
+    private boolean install(Snapshot<E> base, Object[] src, int n) {
+        long stamp = lock.writeLock();
+        try {
+            if (lastSnapshot != base) return false;
+            overwrite(src, n);
+            shrink();
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Writes src[0, n) over the first max(n, size) slots and clears the rest
+     * (write lock held, n <= capacity). Chunks shared with a snapshot are
+     * replaced by fresh arrays instead of being cloned and then overwritten.
+     */
+    private void overwrite(Object[] src, int n) {
+        int chunkLength = chunks[0].items.length;
+        int end = Math.max(n, size);
+        for (int k = 0; k * chunkLength < end; k++) {
+            Chunk c = chunks[k];
+            if (c.epoch != epoch) {
+                c = new Chunk(new Object[chunkLength], epoch);
+                chunks[k] = c;
+            }
+            int from = k * chunkLength;
+            int run = Math.max(0, Math.min(chunkLength, n - from));
+            System.arraycopy(src, from, c.items, 0, run);
+            Arrays.fill(c.items, run, Math.min(chunkLength, end - from), null);
+        }
+        size = n;
+        lastSnapshot = null;
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            chunks = new Chunk[] {new Chunk(new Object[8], epoch)};
+            capacity = 8;
+            size = 0;
+            lastSnapshot = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Point-in-time, read-only view of the list. O(n / 1024) to take (a
+     * directory copy under the write lock) and free when nothing has been
+     * written since the previous snapshot; O(1) get afterwards.
+     */
+    public List<E> snapshot() {
+        return currentSnapshot();
+    }
+
+    private Snapshot<E> currentSnapshot() {
+        Snapshot<E> s = lastSnapshot;
+        if (s != null) return s;
+        long stamp = lock.writeLock();
+        try {
+            return snapshotLocked();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Returns lastSnapshot, taking and publishing one if needed (write lock held). */
+    private Snapshot<E> snapshotLocked() {
+        Snapshot<E> s = lastSnapshot;
+        if (s == null) {
+            int chunksInUse = Math.max(1, (size + CHUNK - 1) >>> CHUNK_SHIFT);
+            s = new Snapshot<>(Arrays.copyOf(chunks, Math.min(chunksInUse, chunks.length)), size);
+            epoch++;
+            lastSnapshot = s;
+        }
+        return s;
+    }
+
+    /** Immutable view over chunks that writers will copy before touching. */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Chunk[] chunks;
+        private final int size;
+
+        Snapshot(Chunk[] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+            return (E) chunks[index >>> CHUNK_SHIFT].items[index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() { return size; }
+
+        @Override
+        public Object[] toArray() { return copyOut(chunks, size); }
+    }
+
+    /** Flattens the first n elements of a chunk directory, one arraycopy per chunk. */
+    private static Object[] copyOut(Chunk[] chunks, int n) {
+        Object[] out = new Object[n];
+        for (int done = 0; done < n; ) {
+            Object[] items = chunks[done >>> CHUNK_SHIFT].items;
+            int run = Math.min(n - done, items.length);
+            System.arraycopy(items, 0, out, done, run);
+            done += run;
+        }
+        return out;
+    }
+
+    // --- Read-only operations run against a snapshot ---
+    @Override public Iterator<E> iterator() { return snapshot().iterator(); }
+    @Override public ListIterator<E> listIterator() { return snapshot().listIterator(); }
+    @Override public ListIterator<E> listIterator(int index) { return snapshot().listIterator(index); }
+    @Override public Spliterator<E> spliterator() { return snapshot().spliterator(); }
+    @Override public void forEach(Consumer<? super E> action) { snapshot().forEach(action); }
+    @Override public boolean contains(Object o) { return snapshot().contains(o); }
+    @Override public boolean containsAll(Collection<?> c) { return snapshot().containsAll(c); }
+    @Override public int indexOf(Object o) { return snapshot().indexOf(o); }
+    @Override public int lastIndexOf(Object o) { return snapshot().lastIndexOf(o); }
+    @Override public Object[] toArray() { return snapshot().toArray(); }
+    @Override public <T> T[] toArray(T[] a) { return snapshot().toArray(a); }
+    @Override public String toString() { return snapshot().toString(); }
+
+    private void validatePositionIndex(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+    }
+
+    private void validateElementIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+    }
+
+    // --- Interface Stubs (Unsupported Operations) ---
+    @Override public List<E> subList(int fromIndex, int toIndex) { throw new UnsupportedOperationException(); }
+}
@@ -1,12 +1,14 @@
 import java.util.List;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 /**
  * Custom Doubly Linked List implementation.
- * Optimized traversal logic selects the shortest path (Head vs Tail)
- * based on the target index.
+ * Optimized traversal logic selects the shortest path (Head, Tail or the
+ * cached Finger) based on the target index.
  */
 public class MyLinkedList<E> implements List<E> {
     
@@ -18,68 +20,61 @@ public class MyLinkedList<E> implements List<E> {
 
     private Node<E> head, tail;
     private int size;
+    private int modCount;
+
+    /** Finger: the most recently located node and its index (null when unknown). */
+    private Node<E> finger;
+    private int fingerIndex;
 
     public MyLinkedList() {}
 
     /**
-     * Traversal Optimization: O(n/2) lookup.
+     * Traversal Optimization: starts from whichever of head, tail or the
+     * finger is closest, so sequential or localized access costs O(distance
+     * from the previous access) instead of O(n/2).
      */
     private Node<E> nodeAt(int index) {
-        if (index < (size >> 1)) {
-            Node<E> x = head;
+        Node<E> x;
+        int fromHead = index;
+        int fromTail = size - 1 - index;
+        int fromFinger = finger == null ? Integer.MAX_VALUE : Math.abs(index - fingerIndex);
+
+        if (fromFinger <= fromHead && fromFinger <= fromTail) {
+            x = finger;
+            if (index > fingerIndex) {
+                for (int i = fingerIndex; i < index; i++) x = x.next;
+            } else {
+                for (int i = fingerIndex; i > index; i--) x = x.prev;
+            }
+        } else if (fromHead <= fromTail) {
+            x = head;
             for (int i = 0; i < index; i++) x = x.next;
-            return x;
         } else {
-            Node<E> x = tail;
+            x = tail;
             for (int i = size - 1; i > index; i--) x = x.prev;
-            return x;
-        }
-    }
-
-    @Override
-    public boolean add(E e) {
-        Node<E> newNode = new Node<>(e);
-        if (tail == null) {
-            head = tail = newNode;
-        } else {
-            tail.next = newNode;
-            newNode.prev = tail;
-            tail = newNode;
         }
-        size++;
-        return true;
+        finger = x;
+        fingerIndex = index;
+        return x;
     }
 
-    @Override
-    public void add(int index, E element) {
-        validatePositionIndex(index);
-        if (index == size) {
-            add(element);
-            return;
-        }
-        if (index == 0) {
-            Node<E> newNode = new Node<>(element);
-            newNode.next = head;
-            if (head != null) head.prev = newNode;
-            head = newNode;
-            if (tail == null) tail = newNode;
-            size++;
-            return;
-        }
-        Node<E> succ = nodeAt(index);
-        Node<E> pred = succ.prev;
+    /** Links a new node before succ (at the tail when succ is null); it lands at index. */
+    private Node<E> linkBefore(E element, Node<E> succ, int index) {
         Node<E> newNode = new Node<>(element);
+        Node<E> pred = (succ == null) ? tail : succ.prev;
         newNode.prev = pred;
         newNode.next = succ;
-        pred.next = newNode;
-        succ.prev = newNode;
+        if (pred == null) head = newNode; else pred.next = newNode;
+        if (succ == null) tail = newNode; else succ.prev = newNode;
         size++;
+        modCount++;
+        finger = newNode;
+        fingerIndex = index;
+        return newNode;
     }
 
-    @Override
-    public E remove(int index) {
-        validateElementIndex(index);
-        Node<E> x = nodeAt(index);
+    /** Unlinks x, currently at index, keeping the finger on a live node. */
+    private E unlink(Node<E> x, int index) {
         E element = x.value;
         Node<E> next = x.next;
         Node<E> prev = x.prev;
@@ -87,27 +82,65 @@ public class MyLinkedList<E> implements List<E> {
         if (prev == null) head = next; else prev.next = next;
         if (next == null) tail = prev; else next.prev = prev;
 
+        if (finger == x) {
+            finger = (next != null) ? next : prev;
+            fingerIndex = (next != null) ? index : index - 1;
+        } else if (finger != null && fingerIndex > index) {
+            fingerIndex--;
+        }
+
         x.prev = x.next = null;
         x.value = null;
         size--;
+        modCount++;
         return element;
     }
 
+    @Override
+    public boolean add(E e) {
+        linkBefore(e, null, size);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        validatePositionIndex(index);
+        linkBefore(element, index == size ? null : nodeAt(index), index);
+    }
+
+    @Override
+    public E remove(int index) {
+        validateElementIndex(index);
+        return unlink(nodeAt(index), index);
+    }
+
     @Override
     public boolean remove(Object o) {
-        for (Node<E> x = head; x != null; x = x.next) {
+        int i = 0;
+        for (Node<E> x = head; x != null; x = x.next, i++) {
             if (o == null ? x.value == null : o.equals(x.value)) {
-                Node<E> next = x.next;
-                Node<E> prev = x.prev;
-                if (prev == null) head = next; else prev.next = next;
-                if (next == null) tail = prev; else next.prev = prev;
-                size--;
+                unlink(x, i);
                 return true;
             }
         }
         return false;
     }
 
+    @Override
+    public E get(int index) {
+        validateElementIndex(index);
+        return nodeAt(index).value;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        validateElementIndex(index);
+        Node<E> x = nodeAt(index);
+        E oldValue = x.value;
+        x.value = element;
+        return oldValue;
+    }
+
     @Override
     public void clear() {
         for (Node<E> x = head; x != null; ) {
@@ -116,7 +149,104 @@ public class MyLinkedList<E> implements List<E> {
             x = next;
         }
         head = tail = null;
+        finger = null;
         size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<E> iterator() { return new Cursor(0); }
+
+    @Override
+    public ListIterator<E> listIterator() { return new Cursor(0); }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        validatePositionIndex(index);
+        return new Cursor(index);
+    }
+
+    /**
+     * Bi-directional cursor with O(1) add / remove / set at its position.
+     * Fails fast if the list is modified other than through this cursor.
+     */
+    private class Cursor implements ListIterator<E> {
+        private Node<E> next;
+        private Node<E> lastReturned;
+        private int nextIndex;
+        private int expectedModCount = modCount;
+
+        Cursor(int index) {
+            next = (index == size) ? null : nodeAt(index);
+            nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() { return nextIndex < size; }
+
+        @Override
+        public E next() {
+            checkForComodification();
+            if (!hasNext()) throw new NoSuchElementException();
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return lastReturned.value;
+        }
+
+        @Override
+        public boolean hasPrevious() { return nextIndex > 0; }
+
+        @Override
+        public E previous() {
+            checkForComodification();
+            if (!hasPrevious()) throw new NoSuchElementException();
+            next = (next == null) ? tail : next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return lastReturned.value;
+        }
+
+        @Override
+        public int nextIndex() { return nextIndex; }
+
+        @Override
+        public int previousIndex() { return nextIndex - 1; }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned == null) throw new IllegalStateException();
+            if (next == lastReturned) {
+                next = lastReturned.next;
+                unlink(lastReturned, nextIndex);
+            } else {
+                unlink(lastReturned, nextIndex - 1);
+                nextIndex--;
+            }
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastReturned == null) throw new IllegalStateException();
+            checkForComodification();
+            lastReturned.value = e;
+        }
+
+        @Override
+        public void add(E e) {
+            checkForComodification();
+            lastReturned = null;
+            linkBefore(e, next, nextIndex);
+            nextIndex++;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
     }
 
     @Override
@@ -147,7 +277,6 @@ public class MyLinkedList<E> implements List<E> {
 
     // --- Interface Stubs (Unsupported Operations) ---
     @Override public boolean contains(Object o) { throw new UnsupportedOperationException(); }
-    @Override public Iterator<E> iterator() { throw new UnsupportedOperationException(); }
     @Override public Object[] toArray() { throw new UnsupportedOperationException(); }
     @Override public <T> T[] toArray(T[] a) { throw new UnsupportedOperationException(); }
     @Override public boolean containsAll(Collection<?> c) { throw new UnsupportedOperationException(); }
@@ -155,11 +284,7 @@ public class MyLinkedList<E> implements List<E> {
     @Override public boolean addAll(int index, Collection<? extends E> c) { throw new UnsupportedOperationException(); }
     @Override public boolean removeAll(Collection<?> c) { throw new UnsupportedOperationException(); }
     @Override public boolean retainAll(Collection<?> c) { throw new UnsupportedOperationException(); }
-    @Override public E get(int index) { throw new UnsupportedOperationException(); }
-    @Override public E set(int index, E element) { throw new UnsupportedOperationException(); }
     @Override public int indexOf(Object o) { throw new UnsupportedOperationException(); }
     @Override public int lastIndexOf(Object o) { throw new UnsupportedOperationException(); }
-    @Override public ListIterator<E> listIterator() { throw new UnsupportedOperationException(); }
-    @Override public ListIterator<E> listIterator(int index) { throw new UnsupportedOperationException(); }
     @Override public List<E> subList(int fromIndex, int toIndex) { throw new UnsupportedOperationException(); }
 }
@@ -0,0 +1,390 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Off-Heap Fixed-Width List implementation.
+ * Elements are encoded by a FixedWidthCodec into direct or memory-mapped
+ * ByteBuffers instead of an Object[], so the GC never scans them and the
+ * element count is bounded by native memory / disk rather than the heap.
+ *
+ * Storage is split into pages of up to 64 MB. Below one page the list is a
+ * single buffer whose capacity doubles / halves with MyArrayList's
+ * grow-at-full, shrink-below-25% policy; beyond that, capacity doubles by
+ * adding whole pages, so growth never copies existing elements.
+ *
+ * mapped(file, codec) keeps the elements in a file behind a 64-byte header
+ * that persists the element width and size. Growth remaps the file instead
+ * of copying, and reopening the file makes the list usable immediately,
+ * with no deserialization. Null elements are not supported.
+ */
+public class MyOffHeapList<E> implements List<E>, AutoCloseable {
+    private static final int MAGIC = 0x4f484c53; // "OHLS"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SIZE_OFFSET = 16;
+    private static final int CAPACITY_OFFSET = 24;
+    private static final int MAX_PAGE_BYTES = 1 << 26;
+
+    private final FixedWidthCodec<E> codec;
+    private final int width;
+    private final int pageShift;
+    private final int pageMask;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+
+    private ByteBuffer[] pages;
+    private int capacity;
+    private int size;
+    private int modCount;
+
+    /** In-memory list backed by direct ByteBuffers. */
+    public MyOffHeapList(FixedWidthCodec<E> codec) {
+        this(codec, null, null, 8, 0);
+    }
+
+    private MyOffHeapList(FixedWidthCodec<E> codec, FileChannel channel, MappedByteBuffer header,
+                          int capacity, int size) {
+        this.codec = codec;
+        this.width = codec.width();
+        this.pageShift = 31 - Integer.numberOfLeadingZeros(MAX_PAGE_BYTES / width);
+        this.pageMask = (1 << pageShift) - 1;
+        this.channel = channel;
+        this.header = header;
+        this.pages = new ByteBuffer[0];
+        this.size = size;
+        reallocate(capacity);
+    }
+
+    /**
+     * File-backed list. An existing file is reopened in place (its size is
+     * read from the header); a missing or empty file is initialized. The
+     * header of a non-empty file is read and checked before anything is
+     * mapped, so an unrelated file is rejected without being modified.
+     */
+    public static <E> MyOffHeapList<E> mapped(Path file, FixedWidthCodec<E> codec) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long fileBytes = channel.size();
+            if (fileBytes == 0) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, codec.width());
+                return new MyOffHeapList<>(codec, channel, header, 8, 0);
+            }
+            if (fileBytes < HEADER_BYTES) throw new IOException("Not an off-heap list file: " + file);
+            ByteBuffer existing = ByteBuffer.allocate(HEADER_BYTES);
+            while (existing.hasRemaining()) {
+                if (channel.read(existing, existing.position()) < 0) throw new IOException("Not an off-heap list file: " + file);
+            }
+            if (existing.getInt(0) != MAGIC || existing.getInt(4) != VERSION) {
+                throw new IOException("Not an off-heap list file: " + file);
+            }
+            if (existing.getInt(8) != codec.width()) {
+                throw new IOException("Element width " + existing.getInt(8) + " does not match codec width " + codec.width() + ".");
+            }
+            int capacity = existing.getInt(CAPACITY_OFFSET);
+            long size = existing.getLong(SIZE_OFFSET);
+            if (capacity < 8 || Integer.bitCount(capacity) != 1 || size < 0 || size > capacity
+                    || fileBytes < HEADER_BYTES + (long) capacity * codec.width()) {
+                throw new IOException("Corrupt off-heap list header (size " + size + ", capacity " + capacity + "): " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            return new MyOffHeapList<>(codec, channel, header, capacity, (int) size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Resizing Policy: Doubles capacity on growth;
+     * halves capacity when utilization drops below 25%.
+     */
+    private void grow() {
+        reallocate(capacity * 2);
+    }
+
+    private void shrink() {
+        if (capacity > 8 && size < capacity / 4) {
+            int newCapacity = capacity / 2;
+            if (newCapacity < 8) newCapacity = 8;
+            reallocate(newCapacity);
+        }
+    }
+
+    /**
+     * Re-pages the storage for newCapacity elements. Full pages are kept as
+     * they are; only a single sub-page buffer is ever replaced, by a remap in
+     * file mode or a copy in direct mode.
+     */
+    private void reallocate(int newCapacity) {
+        int pageElements = Math.min(newCapacity, 1 << pageShift);
+        int pageBytes = pageElements * width;
+        int pageCount = newCapacity / pageElements;
+        ByteBuffer[] newPages = new ByteBuffer[pageCount];
+        try {
+            for (int p = 0; p < pageCount; p++) {
+                ByteBuffer old = p < pages.length ? pages[p] : null;
+                newPages[p] = (old != null && old.capacity() == pageBytes) ? old : openPage(p, pageBytes, old);
+            }
+            if (channel != null) {
+                long fileBytes = HEADER_BYTES + (long) pageCount * pageBytes;
+                if (channel.size() > fileBytes) channel.truncate(fileBytes);
+                header.putInt(CAPACITY_OFFSET, newCapacity);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pages = newPages;
+        capacity = newCapacity;
+    }
+
+    private ByteBuffer openPage(int p, int bytes, ByteBuffer old) throws IOException {
+        if (channel != null) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + (long) p * bytes, bytes);
+        }
+        ByteBuffer page = ByteBuffer.allocateDirect(bytes);
+        if (old != null) page.put(0, old, 0, Math.min(bytes, old.capacity()));
+        return page;
+    }
+
+    private ByteBuffer page(int index) { return pages[index >>> pageShift]; }
+
+    private int offset(int index) { return (index & pageMask) * width; }
+
+    /** Every structural change goes through here. */
+    private void setSize(int newSize) {
+        size = newSize;
+        modCount++;
+        if (header != null) header.putLong(SIZE_OFFSET, newSize);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (size == capacity) grow();
+        codec.write(page(size), offset(size), e);
+        setSize(size + 1);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        validatePositionIndex(index);
+        if (size == capacity) grow();
+        moveRight(index, size - index);
+        codec.write(page(index), offset(index), element);
+        setSize(size + 1);
+    }
+
+    @Override
+    public E remove(int index) {
+        validateElementIndex(index);
+        E removedValue = codec.read(page(index), offset(index));
+        moveLeft(index + 1, size - index - 1);
+        setSize(size - 1);
+        shrink();
+        return removedValue;
+    }
+
+    @Override
+    public E get(int index) {
+        validateElementIndex(index);
+        return codec.read(page(index), offset(index));
+    }
+
+    @Override
+    public E set(int index, E element) {
+        validateElementIndex(index);
+        ByteBuffer page = page(index);
+        int off = offset(index);
+        E oldValue = codec.read(page, off);
+        codec.write(page, off, element);
+        return oldValue;
+    }
+
+    /** Moves elements [from, from + count) one slot back, last run first. */
+    private void moveRight(int from, int count) {
+        int end = from + count;
+        while (count > 0) {
+            int run = Math.min(count, Math.min((end - 1) & pageMask, end & pageMask) + 1);
+            copy(end - run, end - run + 1, run);
+            count -= run;
+            end -= run;
+        }
+    }
+
+    /** Moves elements [from, from + count) one slot forward, first run first. */
+    private void moveLeft(int from, int count) {
+        int start = from;
+        while (count > 0) {
+            int run = Math.min(count, (pageMask + 1) - Math.max(start & pageMask, (start - 1) & pageMask));
+            copy(start, start - 1, run);
+            count -= run;
+            start += run;
+        }
+    }
+
+    /** Bulk byte copy of n elements that stay inside one page on each side. */
+    private void copy(int src, int dst, int n) {
+        page(dst).put(offset(dst), page(src), offset(src), n * width);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (get(i).equals(o)) {
+                remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        setSize(0);
+        shrink();
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+
+    /** Flushes mapped pages and the header to the file (no-op in direct mode). */
+    public void force() {
+        if (channel == null) return;
+        for (ByteBuffer page : pages) ((MappedByteBuffer) page).force();
+        header.force();
+    }
+
+    /** Flushes and closes the file; the list must not be used afterwards. */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        force();
+        pages = new ByteBuffer[0];
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(get(i));
+        }
+        return sb.append("]").toString();
+    }
+
+    private void validatePositionIndex(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+    }
+
+    private void validateElementIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public Iterator<E> iterator() { return new Itr(0); }
+
+    @Override
+    public ListIterator<E> listIterator() { return new Itr(0); }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        validatePositionIndex(index);
+        return new Itr(index);
+    }
+
+    /** Fail-fast cursor over indices; each step decodes one element. */
+    private class Itr implements ListIterator<E> {
+        private int cursor;
+        private int lastRet = -1;
+        private int expectedModCount = modCount;
+
+        Itr(int index) { cursor = index; }
+
+        @Override
+        public boolean hasNext() { return cursor < size; }
+
+        @Override
+        public E next() {
+            checkForComodification();
+            if (cursor >= size) throw new NoSuchElementException();
+            lastRet = cursor++;
+            return codec.read(page(lastRet), offset(lastRet));
+        }
+
+        @Override
+        public boolean hasPrevious() { return cursor > 0; }
+
+        @Override
+        public E previous() {
+            checkForComodification();
+            if (cursor <= 0) throw new NoSuchElementException();
+            lastRet = --cursor;
+            return codec.read(page(lastRet), offset(lastRet));
+        }
+
+        @Override
+        public int nextIndex() { return cursor; }
+
+        @Override
+        public int previousIndex() { return cursor - 1; }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            MyOffHeapList.this.remove(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            MyOffHeapList.this.set(lastRet, e);
+        }
+
+        @Override
+        public void add(E e) {
+            checkForComodification();
+            MyOffHeapList.this.add(cursor++, e);
+            lastRet = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    // --- Interface Stubs (Unsupported Operations) ---
+    @Override public boolean contains(Object o) { throw new UnsupportedOperationException(); }
+    @Override public Object[] toArray() { throw new UnsupportedOperationException(); }
+    @Override public <T> T[] toArray(T[] a) { throw new UnsupportedOperationException(); }
+    @Override public boolean containsAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean addAll(Collection<? extends E> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean addAll(int index, Collection<? extends E> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean removeAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override public boolean retainAll(Collection<?> c) { throw new UnsupportedOperationException(); }
+    @Override public int indexOf(Object o) { throw new UnsupportedOperationException(); }
+    @Override public int lastIndexOf(Object o) { throw new UnsupportedOperationException(); }
+    @Override public List<E> subList(int fromIndex, int toIndex) { throw new UnsupportedOperationException(); }
+}
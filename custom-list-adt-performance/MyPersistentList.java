@@ -0,0 +1,442 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Persistent (Immutable) List implementation.
+ * A counted B+-tree of width 32: leaves hold up to 32 elements, branches
+ * hold up to 32 children plus the running element count of each child
+ * (relaxed, like an RRB trie, so inserts anywhere never rebalance the
+ * whole tree). get / set / insert / remove walk one root-to-leaf path:
+ * O(log32 n), which is at most 5 levels for 2^25 elements.
+ *
+ * Structural Sharing: an update copies only the nodes on its path and
+ * shares every other subtree with the original, so older versions stay
+ * valid and may be read from any thread without locking.
+ *
+ * Transient Mode: toTransient() returns a mutable List over the same
+ * tree. Every node stamped with the transient's edit token is updated in
+ * place, so bulk construction allocates only the tree itself. snapshot()
+ * is O(1): it wraps the current root and switches to a fresh token, so the
+ * next write copies the path instead of disturbing the snapshot.
+ */
+public final class MyPersistentList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int WIDTH = 32;
+    private static final int MIN_FILL = WIDTH / 4;
+    private static final MyPersistentList<Object> EMPTY = new MyPersistentList<>(null, 0);
+
+    /** A leaf (sizes == null, slots are elements) or a branch (slots are child nodes). */
+    private static final class Node {
+        final Object[] slots;
+        final int[] sizes;        // branch only: sizes[j] = elements under children 0..j
+        int count;
+        final Object owner;       // edit token of the transient allowed to mutate this node
+
+        Node(Object[] slots, int[] sizes, int count, Object owner) {
+            this.slots = slots;
+            this.sizes = sizes;
+            this.count = count;
+            this.owner = owner;
+        }
+
+        boolean isLeaf() { return sizes == null; }
+
+        int total() { return isLeaf() ? count : sizes[count - 1]; }
+
+        Node copy(Object edit) {
+            return new Node(slots.clone(), sizes == null ? null : sizes.clone(), count, edit);
+        }
+    }
+
+    private final Node root;     // null when empty
+    private final int size;
+
+    private MyPersistentList(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> MyPersistentList<E> empty() {
+        return (MyPersistentList<E>) EMPTY;
+    }
+
+    /** Bulk construction through a transient: leaves and branches are filled in place. */
+    public static <E> MyPersistentList<E> of(Collection<? extends E> elements) {
+        Transient<E> t = MyPersistentList.<E>empty().toTransient();
+        for (E e : elements) t.add(e);
+        return t.snapshot();
+    }
+
+    /** A mutable list starting from this version; this version is never affected. */
+    public Transient<E> toTransient() {
+        return new Transient<>(root, size);
+    }
+
+    public MyPersistentList<E> with(int index, E element) {
+        Transient<E> t = toTransient();
+        t.set(index, element);
+        return t.snapshot();
+    }
+
+    public MyPersistentList<E> plus(E element) {
+        return plus(size, element);
+    }
+
+    public MyPersistentList<E> plus(int index, E element) {
+        Transient<E> t = toTransient();
+        t.add(index, element);
+        return t.snapshot();
+    }
+
+    public MyPersistentList<E> minus(int index) {
+        Transient<E> t = toTransient();
+        t.remove(index);
+        return t.snapshot();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        Node n = root;
+        while (!n.isLeaf()) {
+            int j = childIndex(n, index);
+            if (j > 0) index -= n.sizes[j - 1];
+            n = (Node) n.slots[j];
+        }
+        return (E) n.slots[index];
+    }
+
+    @Override
+    public int size() { return size; }
+
+    /** Walks leaf by leaf: one descent per 32 elements. */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int index;
+            private Object[] leaf;
+            private int leafStart;
+            private int leafEnd;
+
+            @Override
+            public boolean hasNext() { return index < size; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= size) throw new NoSuchElementException();
+                if (index >= leafEnd) {
+                    Node n = root;
+                    int off = index;
+                    while (!n.isLeaf()) {
+                        int j = childIndex(n, off);
+                        if (j > 0) off -= n.sizes[j - 1];
+                        n = (Node) n.slots[j];
+                    }
+                    leaf = n.slots;
+                    leafStart = index - off;
+                    leafEnd = leafStart + n.count;
+                }
+                return (E) leaf[index++ - leafStart];
+            }
+        };
+    }
+
+    /**
+     * First child whose running count exceeds offset. Appended subtrees are
+     * packed full, so the first child's size predicts the slot exactly (as a
+     * radix trie would); relaxed nodes are corrected by a short scan instead
+     * of a binary search's unpredictable branches.
+     */
+    private static int childIndex(Node b, int offset) {
+        int[] sizes = b.sizes;
+        int j = Math.min(offset / sizes[0], b.count - 1);
+        while (sizes[j] <= offset) j++;
+        while (j > 0 && sizes[j - 1] > offset) j--;
+        return j;
+    }
+
+    /**
+     * Mutable view of a persistent tree. Nodes owned by this transient's
+     * edit token are updated in place; any other node is copied (once) on
+     * the way down. Not thread-safe; hand snapshot()s to other threads.
+     */
+    public static final class Transient<E> extends AbstractList<E> implements RandomAccess {
+        private Node root;
+        private int size;
+        private Object edit = new Object();
+
+        /** Finger: the most recently located leaf and the index of its first element. */
+        private Node fingerLeaf;
+        private int fingerStart;
+
+        /** Right sibling produced by the last insert's split, consumed by the caller. */
+        private Node split;
+        private Object removed;
+
+        private Transient(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /** O(1): freezes the current tree; later writes copy the nodes they touch. */
+        public MyPersistentList<E> snapshot() {
+            edit = new Object();
+            return root == null ? MyPersistentList.empty() : new MyPersistentList<>(root, size);
+        }
+
+        private Node editable(Node n) {
+            return n.owner == edit ? n : n.copy(edit);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            validateElementIndex(index);
+            Node leaf = fingerLeaf;
+            if (leaf != null && index >= fingerStart && index < fingerStart + leaf.count) {
+                return (E) leaf.slots[index - fingerStart];
+            }
+            Node n = root;
+            int off = index;
+            while (!n.isLeaf()) {
+                int j = childIndex(n, off);
+                if (j > 0) off -= n.sizes[j - 1];
+                n = (Node) n.slots[j];
+            }
+            fingerLeaf = n;
+            fingerStart = index - off;
+            return (E) n.slots[off];
+        }
+
+        /**
+         * Path-copying update. When the finger leaf is already owned by this
+         * transient, so is its whole path, and the write is done in place.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public E set(int index, E element) {
+            validateElementIndex(index);
+            Node leaf = fingerLeaf;
+            if (leaf == null || leaf.owner != edit || index < fingerStart || index >= fingerStart + leaf.count) {
+                root = editable(root);
+                Node n = root;
+                int off = index;
+                while (!n.isLeaf()) {
+                    int j = childIndex(n, off);
+                    if (j > 0) off -= n.sizes[j - 1];
+                    Node c = editable((Node) n.slots[j]);
+                    n.slots[j] = c;
+                    n = c;
+                }
+                leaf = n;
+                fingerLeaf = n;
+                fingerStart = index - off;
+            }
+            int p = index - fingerStart;
+            E oldValue = (E) leaf.slots[p];
+            leaf.slots[p] = element;
+            return oldValue;
+        }
+
+        @Override
+        public boolean add(E e) {
+            add(size, e);
+            return true;
+        }
+
+        @Override
+        public void add(int index, E element) {
+            validatePositionIndex(index);
+            if (root == null) {
+                Object[] slots = new Object[WIDTH];
+                slots[0] = element;
+                root = new Node(slots, null, 1, edit);
+            } else {
+                Node r = insert(root, index, element);
+                if (split != null) {
+                    Object[] children = new Object[WIDTH];
+                    children[0] = r;
+                    children[1] = split;
+                    int[] sizes = new int[WIDTH];
+                    sizes[0] = r.total();
+                    sizes[1] = sizes[0] + split.total();
+                    r = new Node(children, sizes, 2, edit);
+                    split = null;
+                }
+                root = r;
+            }
+            size++;
+            modCount++;
+            fingerLeaf = null;
+        }
+
+        /**
+         * Inserts into the subtree n at offset off and returns its editable
+         * copy. A full node splits in half, except when the insert lands at
+         * its very end: then it stays full and the new sibling starts with
+         * one entry, so appends pack every node to 32.
+         */
+        private Node insert(Node n, int off, Object element) {
+            Node m = editable(n);
+            if (m.isLeaf()) {
+                if (m.count < WIDTH) {
+                    System.arraycopy(m.slots, off, m.slots, off + 1, m.count - off);
+                    m.slots[off] = element;
+                    m.count++;
+                    return m;
+                }
+                Node right = new Node(new Object[WIDTH], null, 0, edit);
+                if (off == WIDTH) {
+                    right.slots[0] = element;
+                    right.count = 1;
+                } else {
+                    int keep = WIDTH / 2;
+                    System.arraycopy(m.slots, keep, right.slots, 0, WIDTH - keep);
+                    Arrays.fill(m.slots, keep, WIDTH, null);
+                    m.count = keep;
+                    right.count = WIDTH - keep;
+                    Node target = off <= keep ? m : right;
+                    int at = off <= keep ? off : off - keep;
+                    System.arraycopy(target.slots, at, target.slots, at + 1, target.count - at);
+                    target.slots[at] = element;
+                    target.count++;
+                }
+                split = right;
+                return m;
+            }
+
+            int j = off >= m.total() ? m.count - 1 : childIndex(m, off);
+            int before = j > 0 ? m.sizes[j - 1] : 0;
+            Node c = insert((Node) m.slots[j], off - before, element);
+            m.slots[j] = c;
+            for (int k = j; k < m.count; k++) m.sizes[k]++;
+            if (split == null) return m;
+
+            Node s = split;
+            split = null;
+            if (m.count < WIDTH) {
+                System.arraycopy(m.slots, j + 1, m.slots, j + 2, m.count - j - 1);
+                System.arraycopy(m.sizes, j + 1, m.sizes, j + 2, m.count - j - 1);
+                m.slots[j + 1] = s;
+                m.sizes[j] = before + c.total();
+                m.sizes[j + 1] = m.sizes[j] + s.total();
+                m.count++;
+                return m;
+            }
+
+            // Full branch: lay out the 33 children, then split like a leaf.
+            Node[] all = new Node[WIDTH + 1];
+            for (int k = 0, t = 0; k < WIDTH; k++) {
+                all[t++] = (Node) m.slots[k];
+                if (k == j) all[t++] = s;
+            }
+            int keep = (j + 1 == WIDTH) ? WIDTH : WIDTH / 2;
+            Node right = new Node(new Object[WIDTH], new int[WIDTH], 0, edit);
+            fillBranch(m, all, 0, keep);
+            fillBranch(right, all, keep, WIDTH + 1);
+            split = right;
+            return m;
+        }
+
+        private static void fillBranch(Node b, Node[] children, int from, int to) {
+            Arrays.fill(b.slots, null);
+            int running = 0;
+            for (int k = from; k < to; k++) {
+                running += children[k].total();
+                b.slots[k - from] = children[k];
+                b.sizes[k - from] = running;
+            }
+            b.count = to - from;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E remove(int index) {
+            validateElementIndex(index);
+            Node r = remove(root, index);
+            while (!r.isLeaf() && r.count == 1) r = (Node) r.slots[0];
+            root = r.count == 0 ? null : r;
+            size--;
+            modCount++;
+            fingerLeaf = null;
+            E oldValue = (E) removed;
+            removed = null;
+            return oldValue;
+        }
+
+        /** Removes offset off from subtree n; empty children are dropped, thin ones merged with a neighbour. */
+        private Node remove(Node n, int off) {
+            Node m = editable(n);
+            if (m.isLeaf()) {
+                removed = m.slots[off];
+                System.arraycopy(m.slots, off + 1, m.slots, off, m.count - off - 1);
+                m.slots[--m.count] = null;
+                return m;
+            }
+            int j = childIndex(m, off);
+            int before = j > 0 ? m.sizes[j - 1] : 0;
+            Node c = remove((Node) m.slots[j], off - before);
+            for (int k = j; k < m.count; k++) m.sizes[k]--;
+            if (c.count == 0) {
+                dropChild(m, j);
+            } else {
+                m.slots[j] = c;
+                if (c.count < MIN_FILL && m.count > 1) mergeWithNeighbour(m, j);
+            }
+            return m;
+        }
+
+        private static void dropChild(Node b, int j) {
+            System.arraycopy(b.slots, j + 1, b.slots, j, b.count - j - 1);
+            System.arraycopy(b.sizes, j + 1, b.sizes, j, b.count - j - 1);
+            b.slots[--b.count] = null;
+        }
+
+        /** Merges child j with an adjacent sibling when both fit in one node. */
+        private void mergeWithNeighbour(Node b, int j) {
+            int a = (j + 1 < b.count) ? j : j - 1;
+            Node left = (Node) b.slots[a];
+            Node right = (Node) b.slots[a + 1];
+            if (left.count + right.count > WIDTH) return;
+            left = editable(left);
+            if (left.isLeaf()) {
+                System.arraycopy(right.slots, 0, left.slots, left.count, right.count);
+            } else {
+                int base = left.total();
+                for (int k = 0; k < right.count; k++) {
+                    left.slots[left.count + k] = right.slots[k];
+                    left.sizes[left.count + k] = base + right.sizes[k];
+                }
+            }
+            left.count += right.count;
+            b.slots[a] = left;
+            b.sizes[a] = b.sizes[a + 1];
+            dropChild(b, a + 1);
+        }
+
+        @Override
+        public void clear() {
+            root = null;
+            size = 0;
+            modCount++;
+            fingerLeaf = null;
+        }
+
+        @Override
+        public int size() { return size; }
+
+        private void validatePositionIndex(int index) {
+            if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+        }
+
+        private void validateElementIndex(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        }
+    }
+}
@@ -0,0 +1,610 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Custom Tiered Vector implementation.
+ * Elements live in fixed-size chunks of C = 2^shift slots, each chunk a small
+ * ring buffer. Every chunk except the last is full, so index i is always at
+ * offset i mod C of chunk i / C: O(1) random access with no directory search.
+ *
+ * Inserting or removing at index i shifts elements inside one chunk (O(C)),
+ * then ripples a single element across each following chunk (O(1) per chunk
+ * thanks to the rings), for O(C + n/C) = O(sqrt n) with C ~ sqrt n.
+ *
+ * Scans (iteration, search, toArray, streams) walk the list one chunk at a
+ * time, so the index-to-slot arithmetic is paid per chunk, not per element.
+ */
+public class MyTieredList<E> implements List<E> {
+    private static final int MIN_SHIFT = 4;
+
+    private Object[][] chunks;
+    private int[] heads;
+    private int chunkCount;
+    private int shift;
+    private int mask;
+    private int size;
+    private int modCount;
+
+    public MyTieredList() {
+        this.shift = MIN_SHIFT;
+        this.mask = (1 << shift) - 1;
+        this.chunks = new Object[8][];
+        this.heads = new int[8];
+        this.chunkCount = 0;
+        this.size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        validateElementIndex(index);
+        int k = index >>> shift;
+        return (E) chunks[k][(heads[k] + index) & mask];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        validateElementIndex(index);
+        int k = index >>> shift;
+        int p = (heads[k] + index) & mask;
+        E oldValue = (E) chunks[k][p];
+        chunks[k][p] = element;
+        return oldValue;
+    }
+
+    @Override
+    public boolean add(E e) {
+        add(size, e);
+        return true;
+    }
+
+    /**
+     * Tiered Insertion: each full chunk after the target hands its last
+     * element to the front of the next chunk, freeing one slot in the target.
+     */
+    @Override
+    public void add(int index, E element) {
+        validatePositionIndex(index);
+        if (size == chunkCount << shift) addChunk();
+
+        int capacity = 1 << shift;
+        int k = index >>> shift;
+        int last = size >>> shift;
+        for (int m = last; m > k; m--) {
+            pushFront(m, popBack(m - 1, capacity));
+        }
+        int count = (k == last) ? size - (k << shift) : capacity - 1;
+        insertInto(k, index & mask, count, element);
+        size++;
+        modCount++;
+
+        if (size > (2L << (2 * shift))) rebuild(shift + 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        validateElementIndex(index);
+        int capacity = 1 << shift;
+        int k = index >>> shift;
+        int last = (size - 1) >>> shift;
+        int count = (k == last) ? size - (k << shift) : capacity;
+        E removedValue = (E) removeFrom(k, index & mask, count);
+        for (int m = k + 1; m <= last; m++) {
+            pushBack(m - 1, capacity - 1, popFront(m));
+        }
+        size--;
+        modCount++;
+
+        if (size == (chunkCount - 1) << shift) dropChunk();
+        if (shift > MIN_SHIFT && size < (1 << (2 * shift)) / 8) rebuild(shift - 1);
+        return removedValue;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int i = indexOf(o);
+        if (i < 0) return false;
+        remove(i);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        this.shift = MIN_SHIFT;
+        this.mask = (1 << shift) - 1;
+        this.chunks = new Object[8][];
+        this.heads = new int[8];
+        this.chunkCount = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(get(i));
+        }
+        return sb.append("]").toString();
+    }
+
+    /** Inserts x at offset j of chunk k (holding count elements), shifting the shorter side. */
+    private void insertInto(int k, int j, int count, Object x) {
+        Object[] chunk = chunks[k];
+        int h = heads[k];
+        if (j < count - j) {
+            h = (h - 1) & mask;
+            for (int i = 0; i < j; i++) chunk[(h + i) & mask] = chunk[(h + i + 1) & mask];
+            heads[k] = h;
+        } else {
+            for (int i = count; i > j; i--) chunk[(h + i) & mask] = chunk[(h + i - 1) & mask];
+        }
+        chunk[(h + j) & mask] = x;
+    }
+
+    /** Removes offset j of chunk k (holding count elements), shifting the shorter side. */
+    private Object removeFrom(int k, int j, int count) {
+        Object[] chunk = chunks[k];
+        int h = heads[k];
+        Object x = chunk[(h + j) & mask];
+        if (j < count - 1 - j) {
+            for (int i = j; i > 0; i--) chunk[(h + i) & mask] = chunk[(h + i - 1) & mask];
+            chunk[h] = null;
+            heads[k] = (h + 1) & mask;
+        } else {
+            for (int i = j; i < count - 1; i++) chunk[(h + i) & mask] = chunk[(h + i + 1) & mask];
+            chunk[(h + count - 1) & mask] = null;
+        }
+        return x;
+    }
+
+    private void pushFront(int k, Object x) {
+        heads[k] = (heads[k] - 1) & mask;
+        chunks[k][heads[k]] = x;
+    }
+
+    private Object popBack(int k, int count) {
+        int p = (heads[k] + count - 1) & mask;
+        Object x = chunks[k][p];
+        chunks[k][p] = null;
+        return x;
+    }
+
+    private void pushBack(int k, int count, Object x) {
+        chunks[k][(heads[k] + count) & mask] = x;
+    }
+
+    private Object popFront(int k) {
+        int h = heads[k];
+        Object x = chunks[k][h];
+        chunks[k][h] = null;
+        heads[k] = (h + 1) & mask;
+        return x;
+    }
+
+    /** Appends an empty chunk, reusing the spare one kept by dropChunk(). */
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            Object[][] newChunks = new Object[chunks.length * 2][];
+            System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+            chunks = newChunks;
+            int[] newHeads = new int[heads.length * 2];
+            System.arraycopy(heads, 0, newHeads, 0, chunkCount);
+            heads = newHeads;
+        }
+        if (chunks[chunkCount] == null) chunks[chunkCount] = new Object[1 << shift];
+        heads[chunkCount] = 0;
+        chunkCount++;
+    }
+
+    /** Retires the (now empty) last chunk, keeping it as a single spare. */
+    private void dropChunk() {
+        chunkCount--;
+        if (chunkCount + 1 < chunks.length) chunks[chunkCount + 1] = null;
+    }
+
+    /**
+     * Re-chunks every element with chunk size 2^newShift. Triggered when n
+     * passes 2C^2 (grow) or drops below C^2/8 (shrink), so each O(n) rebuild
+     * is paid for by Theta(n) prior operations.
+     */
+    private void rebuild(int newShift) {
+        layout(toArray(), size, newShift);
+    }
+
+    /** Smallest chunk shift whose grow threshold 2C^2 admits n elements. */
+    private static int shiftFor(int n) {
+        int s = MIN_SHIFT;
+        while (n > (2L << (2 * s))) s++;
+        return s;
+    }
+
+    /** Replaces the contents with flat[0, n), chunked at 2^newShift with every head at 0. */
+    private void layout(Object[] flat, int n, int newShift) {
+        int capacity = 1 << newShift;
+        int newCount = (n + capacity - 1) >>> newShift;
+        int directory = 8;
+        while (directory < newCount) directory *= 2;
+        chunks = new Object[directory][];
+        heads = new int[directory];
+        for (int k = 0; k < newCount; k++) {
+            chunks[k] = new Object[capacity];
+            System.arraycopy(flat, k << newShift, chunks[k], 0, Math.min(capacity, n - (k << newShift)));
+        }
+        chunkCount = newCount;
+        shift = newShift;
+        mask = capacity - 1;
+        size = n;
+        modCount++;
+    }
+
+    /** Copies logical range [from, from + count) into dst, at most two block copies per chunk. */
+    private void copyOut(int from, Object[] dst, int dstPos, int count) {
+        int capacity = 1 << shift;
+        while (count > 0) {
+            int k = from >>> shift;
+            int off = from & mask;
+            int run = Math.min(count, capacity - off);
+            int p = (heads[k] + off) & mask;
+            int first = Math.min(run, capacity - p);
+            System.arraycopy(chunks[k], p, dst, dstPos, first);
+            System.arraycopy(chunks[k], 0, dst, dstPos + first, run - first);
+            from += run;
+            dstPos += run;
+            count -= run;
+        }
+    }
+
+    private void validatePositionIndex(int index) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException();
+    }
+
+    private void validateElementIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public boolean contains(Object o) { return indexOf(o) >= 0; }
+
+    @Override
+    public int indexOf(Object o) {
+        for (int k = 0; k < chunkCount; k++) {
+            Object[] chunk = chunks[k];
+            int h = heads[k];
+            int base = k << shift;
+            int end = Math.min(size - base, mask + 1);
+            for (int j = 0; j < end; j++) {
+                if (Objects.equals(o, chunk[(h + j) & mask])) return base + j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        for (int k = chunkCount - 1; k >= 0; k--) {
+            Object[] chunk = chunks[k];
+            int h = heads[k];
+            int base = k << shift;
+            for (int j = Math.min(size - base, mask + 1) - 1; j >= 0; j--) {
+                if (Objects.equals(o, chunk[(h + j) & mask])) return base + j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c) {
+            if (!contains(o)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] out = new Object[size];
+        copyOut(0, out, 0, size);
+        return out;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        if (a.length < size) a = Arrays.copyOf(a, size);
+        copyOut(0, a, 0, size);
+        if (a.length > size) a[size] = null;
+        return a;
+    }
+
+    /**
+     * Bulk Append: the chunk size is raised at most once, up front, then the
+     * elements are copied into the tail chunk by chunk.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] incoming = c.toArray();
+        if (incoming.length == 0) return false;
+        int newShift = shiftFor(size + incoming.length);
+        if (newShift > shift) rebuild(newShift);
+
+        int capacity = 1 << shift;
+        for (int done = 0; done < incoming.length; ) {
+            if (size == chunkCount << shift) addChunk();
+            int k = size >>> shift;
+            int off = size & mask;
+            int run = Math.min(incoming.length - done, capacity - off);
+            int p = (heads[k] + off) & mask;
+            int first = Math.min(run, capacity - p);
+            System.arraycopy(incoming, done, chunks[k], p, first);
+            System.arraycopy(incoming, done + first, chunks[k], 0, run - first);
+            done += run;
+            size += run;
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Bulk Insertion: the list is flattened once with the incoming block
+     * spliced in and re-chunked, O(n + m) instead of m ripples.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        validatePositionIndex(index);
+        if (index == size) return addAll(c);
+        Object[] incoming = c.toArray();
+        if (incoming.length == 0) return false;
+
+        int n = size + incoming.length;
+        Object[] flat = new Object[n];
+        copyOut(0, flat, 0, index);
+        System.arraycopy(incoming, 0, flat, index, incoming.length);
+        copyOut(index, flat, index + incoming.length, size - index);
+        layout(flat, n, shiftFor(n));
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(e -> !c.contains(e));
+    }
+
+    /**
+     * Single-Pass Compaction: survivors are gathered chunk by chunk into a
+     * flat array, which is re-chunked once (instead of one ripple per
+     * removal). If the filter throws, the list is left unchanged.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        int expectedModCount = modCount;
+        Object[] survivors = new Object[size];
+        int w = 0;
+        for (int k = 0; k < chunkCount; k++) {
+            Object[] chunk = chunks[k];
+            int h = heads[k];
+            int end = Math.min(size - (k << shift), mask + 1);
+            for (int j = 0; j < end; j++) {
+                Object x = chunk[(h + j) & mask];
+                if (!filter.test((E) x)) survivors[w++] = x;
+            }
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        if (w == size) return false;
+        layout(survivors, w, shiftFor(w));
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (int k = 0; k < chunkCount && modCount == expectedModCount; k++) {
+            Object[] chunk = chunks[k];
+            int h = heads[k];
+            int end = Math.min(size - (k << shift), mask + 1);
+            for (int j = 0; j < end; j++) action.accept((E) chunk[(h + j) & mask]);
+        }
+        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public Iterator<E> iterator() { return new Itr(0); }
+
+    @Override
+    public ListIterator<E> listIterator() { return new Itr(0); }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        validatePositionIndex(index);
+        return new Itr(index);
+    }
+
+    /**
+     * Fail-fast cursor that holds on to its current chunk and only steps to
+     * the neighbouring one when its offset leaves [0, C).
+     */
+    private class Itr implements ListIterator<E> {
+        private int cursor;
+        private int lastRet = -1;
+        private int expectedModCount = modCount;
+        private Object[] chunk;
+        private int chunkHead;
+        private int chunkIndex = -1;
+
+        Itr(int index) { cursor = index; }
+
+        @Override
+        public boolean hasNext() { return cursor < size; }
+
+        @Override
+        public E next() {
+            checkForComodification();
+            if (cursor >= size) throw new NoSuchElementException();
+            lastRet = cursor++;
+            return at(lastRet);
+        }
+
+        @Override
+        public boolean hasPrevious() { return cursor > 0; }
+
+        @Override
+        public E previous() {
+            checkForComodification();
+            if (cursor <= 0) throw new NoSuchElementException();
+            lastRet = --cursor;
+            return at(lastRet);
+        }
+
+        @SuppressWarnings("unchecked")
+        private E at(int index) {
+            int k = index >>> shift;
+            if (k != chunkIndex) {
+                chunkIndex = k;
+                chunk = chunks[k];
+                chunkHead = heads[k];
+            }
+            return (E) chunk[(chunkHead + index) & mask];
+        }
+
+        @Override
+        public int nextIndex() { return cursor; }
+
+        @Override
+        public int previousIndex() { return cursor - 1; }
+
+        @Override
+        public void remove() {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            MyTieredList.this.remove(lastRet);
+            cursor = lastRet;
+            lastRet = -1;
+            resync();
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastRet < 0) throw new IllegalStateException();
+            checkForComodification();
+            MyTieredList.this.set(lastRet, e);
+        }
+
+        @Override
+        public void add(E e) {
+            checkForComodification();
+            MyTieredList.this.add(cursor++, e);
+            lastRet = -1;
+            resync();
+        }
+
+        /** Our own structural change moved heads (and maybe the chunk size). */
+        private void resync() {
+            expectedModCount = modCount;
+            chunkIndex = -1;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Spliterator<E> spliterator() { return new RangeSpliterator(0, -1, 0); }
+
+    /**
+     * Index-range Spliterator. The fence binds on first use; trySplit hands
+     * off the lower half of the remaining range, and forEachRemaining walks
+     * it one chunk at a time. Traversal checks modCount once at the end.
+     */
+    private final class RangeSpliterator implements Spliterator<E> {
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        RangeSpliterator(int origin, int fence, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null : new RangeSpliterator(lo, index = mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            if (index >= hi) return false;
+            E e = get(index++);
+            action.accept(e);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super E> action) {
+            Objects.requireNonNull(action);
+            int hi = getFence();
+            int s = shift, m = mask;
+            for (int i = index; i < hi; ) {
+                int k = i >>> s;
+                Object[] chunk = chunks[k];
+                int h = heads[k];
+                int end = Math.min(hi, (k + 1) << s);
+                for (; i < end; i++) action.accept((E) chunk[(h + i) & m]);
+            }
+            index = hi;
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() { return getFence() - index; }
+
+        @Override
+        public int characteristics() { return ORDERED | SIZED | SUBSIZED; }
+    }
+
+    // --- Interface Stubs (Unsupported Operations) ---
+    @Override public List<E> subList(int fromIndex, int toIndex) { throw new UnsupportedOperationException(); }
+}
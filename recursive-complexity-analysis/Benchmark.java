@@ -8,23 +8,30 @@
  */
 public class Benchmark {
 
+    // Past this n the naive O(4^n) version runs for hours instead of overflowing.
+    private static final int MULTIPLE_RECURSIVE_LIMIT = 30;
+
     public static void main(String[] args) {
 
         int[] testValues = {5, 20, 25, 30, 200};
 
         System.out.println("Benchmarking Tetranacci Implementations");
-        System.out.println("n, multiple_recursive_ns, memoized_ns, tail_recursive_ns");
+        System.out.println("n, multiple_recursive_ns, memoized_ns, tail_recursive_ns, fast_doubling_ns");
 
         for (int n : testValues) {
 
             // Multiple Recursive (may overflow or be infeasible)
             String multiTime;
-            try {
-                long start = System.nanoTime();
-                MultipleRecursive.tetranacci(n);
-                multiTime = String.valueOf(System.nanoTime() - start);
-            } catch (StackOverflowError e) {
+            if (n > MULTIPLE_RECURSIVE_LIMIT) {
                 multiTime = "INF";
+            } else {
+                try {
+                    long start = System.nanoTime();
+                    MultipleRecursive.tetranacci(n);
+                    multiTime = String.valueOf(System.nanoTime() - start);
+                } catch (StackOverflowError e) {
+                    multiTime = "INF";
+                }
             }
 
             // Memoized
@@ -37,13 +44,34 @@ public class Benchmark {
             TailRecursive.tetranacci(n);
             long tailTime = System.nanoTime() - startTail;
 
+            // Fast Doubling
+            long startFast = System.nanoTime();
+            FastDoubling.tetranacci(n);
+            long fastTime = System.nanoTime() - startFast;
+
             System.out.printf(
-                    "%d, %s, %d, %d%n",
+                    "%d, %s, %d, %d, %d%n",
                     n,
                     multiTime,
                     memoTime,
-                    tailTime
+                    tailTime,
+                    fastTime
             );
         }
+
+        // Large n: the linear versions overflow the stack long before this.
+        int[] largeValues = {10_000, 100_000, 1_000_000, 10_000_000};
+
+        System.out.println();
+        System.out.println("Benchmarking Fast Doubling (large n)");
+        System.out.println("n, result_bits, fast_doubling_ns");
+
+        for (int n : largeValues) {
+            long start = System.nanoTime();
+            int bits = FastDoubling.tetranacci(n).bitLength();
+            long fastTime = System.nanoTime() - start;
+
+            System.out.printf("%d, %d, %d%n", n, bits, fastTime);
+        }
     }
 }
@@ -0,0 +1,62 @@
+import java.math.BigInteger;
+
+/**
+ * Logarithmic implementation of the Tetranacci sequence (Kitamasa doubling).
+ * Works with x^n reduced modulo the characteristic polynomial
+ * x^4 - x^3 - x^2 - x - 1: if x^n = c0 + c1 x + c2 x^2 + c3 x^3, then
+ * T(n) = c0 T(0) + c1 T(1) + c2 T(2) + c3 T(3) = c3.
+ *
+ * Each bit of n costs one squaring of the degree-3 remainder (10 BigInteger
+ * products, 4 of them true squares) plus additions; the 4x4 companion-matrix
+ * power would need 64 products per bit. Multiplying by x is additions only.
+ *
+ * Time Complexity: O(M(n) log n) where M(n) is the cost of multiplying
+ *                  n-bit numbers (Karatsuba / Toom-Cook inside BigInteger)
+ * Space Complexity: O(n) bits for the four coefficients
+ */
+public class FastDoubling {
+
+    public static BigInteger tetranacci(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be >= 0");
+        }
+
+        // Coefficients of x^0.
+        BigInteger[] c = {BigInteger.ONE, BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO};
+
+        for (int bit = 31 - Integer.numberOfLeadingZeros(n); bit >= 0; bit--) {
+            c = square(c);
+            if ((n >>> bit & 1) != 0) {
+                c = timesX(c);
+            }
+        }
+        return c[3];
+    }
+
+    /** (c0 + c1 x + c2 x^2 + c3 x^3)^2 mod the characteristic polynomial. */
+    private static BigInteger[] square(BigInteger[] a) {
+        BigInteger a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3];
+
+        BigInteger[] p = new BigInteger[7];
+        p[0] = a0.multiply(a0);
+        p[1] = a0.multiply(a1).shiftLeft(1);
+        p[2] = a1.multiply(a1).add(a0.multiply(a2).shiftLeft(1));
+        p[3] = a0.multiply(a3).add(a1.multiply(a2)).shiftLeft(1);
+        p[4] = a2.multiply(a2).add(a1.multiply(a3).shiftLeft(1));
+        p[5] = a2.multiply(a3).shiftLeft(1);
+        p[6] = a3.multiply(a3);
+
+        // x^k = x^(k-1) + x^(k-2) + x^(k-3) + x^(k-4) for k = 6, 5, 4.
+        for (int k = 6; k >= 4; k--) {
+            for (int j = k - 4; j < k; j++) {
+                p[j] = p[j].add(p[k]);
+            }
+        }
+        return new BigInteger[] {p[0], p[1], p[2], p[3]};
+    }
+
+    /** x * (c0 + c1 x + c2 x^2 + c3 x^3), reducing x^4 with additions only. */
+    private static BigInteger[] timesX(BigInteger[] a) {
+        return new BigInteger[] {a[3], a[0].add(a[3]), a[1].add(a[3]), a[2].add(a[3])};
+    }
+}